@@ -0,0 +1,74 @@
+package com.phone.benchmark;
+
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic dataset shaped like production: distinct three-letter codes,
+ * distinct calling codes and 2-4 digit operator prefixes spread evenly across countries.
+ */
+final class BenchmarkData {
+
+    static final int COUNTRIES = 250;
+
+    final List<Country> countries = new ArrayList<>(COUNTRIES);
+    final List<PhoneNumberPrefix> prefixes;
+
+    BenchmarkData(int prefixCount) {
+        Random random = new Random(42);
+        prefixes = new ArrayList<>(prefixCount);
+        for (int i = 0; i < COUNTRIES; i++) {
+            Country country = new Country(code(i), "Country " + code(i),
+                    "+" + (20 + i * 3), new ArrayList<>());
+            countries.add(country);
+        }
+
+        long id = 1;
+        int perCountry = prefixCount / COUNTRIES;
+        for (int i = 0; i < COUNTRIES; i++) {
+            Country country = countries.get(i);
+            int count = perCountry + (i < prefixCount % COUNTRIES ? 1 : 0);
+            Set<String> used = new HashSet<>();
+            while (used.size() < count) {
+                int length = 2 + random.nextInt(3);
+                String prefix = digits(random, length);
+                if (prefix.charAt(0) != '0' && used.add(prefix)) {
+                    PhoneNumberPrefix entity = new PhoneNumberPrefix(id++, prefix,
+                            "Region " + prefix, country);
+                    country.getPrefixes().add(entity);
+                    prefixes.add(entity);
+                }
+            }
+        }
+    }
+
+    String[] numbers(int count, long seed) {
+        Random random = new Random(seed);
+        String[] numbers = new String[count];
+        for (int i = 0; i < count; i++) {
+            PhoneNumberPrefix prefix = prefixes.get(random.nextInt(prefixes.size()));
+            numbers[i] = prefix.getCountry().getPhoneCode() + prefix.getPrefix()
+                    + digits(random, 7);
+        }
+        return numbers;
+    }
+
+    private static String code(int index) {
+        return new String(new char[] {
+            (char) ('A' + index / 676), (char) ('A' + index / 26 % 26), (char) ('A' + index % 26)
+        });
+    }
+
+    private static String digits(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,113 @@
+package com.phone.benchmark;
+
+import com.phone.cache.LfuCache;
+import com.phone.dto.PrefixDtoResponse;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * LFU get/put/evict. Keys follow a skewed distribution over twice the capacity, so the
+ * hot set stays resident while the tail keeps evicting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LfuCacheBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({"1000", "10000", "100000"})
+    private int capacity;
+
+    private Store cache;
+    private long[] keys;
+    private PrefixDtoResponse value;
+
+    static final class Store extends LfuCache<Long, PrefixDtoResponse> {
+        Store(int capacity) {
+            super(capacity);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            next = new Random().nextInt(KEYS);
+        }
+
+        int advance() {
+            next = (next + 1) & (KEYS - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cache = new Store(capacity);
+        value = new PrefixDtoResponse(1L, "29", "Region", "BLR");
+        Random random = new Random(42);
+        keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = (long) (2L * capacity * Math.pow(random.nextDouble(), 3));
+        }
+        for (long key = 0; key < capacity; key++) {
+            cache.put(key, value);
+        }
+    }
+
+    @Benchmark
+    public PrefixDtoResponse get(Cursor cursor) {
+        return cache.get(keys[cursor.advance()]);
+    }
+
+    @Benchmark
+    public void put(Cursor cursor) {
+        cache.put(keys[cursor.advance()], value);
+    }
+
+    @Benchmark
+    public PrefixDtoResponse readThrough(Cursor cursor) {
+        return readThroughOnce(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PrefixDtoResponse readThrough4Threads(Cursor cursor) {
+        return readThroughOnce(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public PrefixDtoResponse readThrough8Threads(Cursor cursor) {
+        return readThroughOnce(cursor);
+    }
+
+    private PrefixDtoResponse readThroughOnce(Cursor cursor) {
+        long key = keys[cursor.advance()];
+        PrefixDtoResponse cached = cache.get(key);
+        if (cached == null) {
+            cache.put(key, value);
+            return value;
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,119 @@
+package com.phone.benchmark;
+
+import com.phone.dto.CountrySuggestResponse;
+import com.phone.dto.ResolveDtoResponse;
+import com.phone.index.CountryLookupIndex;
+import com.phone.index.CountrySuggestIndex;
+import com.phone.index.PrefixResolver;
+import com.phone.model.Country;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory halves of {@code CountryService.lookup} and {@code /prefixes/resolve} over
+ * 250 countries; the repository round-trip that follows an index hit is not included.
+ * {@code suggest} is the {@code /countries/suggest} type-ahead on a partial name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static final int SAMPLES = 1 << 12;
+
+    @Param({"100000", "400000"})
+    private int prefixCount;
+
+    private CountryLookupIndex lookupIndex;
+    private PrefixResolver resolver;
+    private CountrySuggestIndex suggestIndex;
+    private String[] codes;
+    private String[] names;
+    private String[] phoneCodes;
+    private String[] partialNames;
+    private String[] numbers;
+    private String[] formattedNumbers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(prefixCount);
+        lookupIndex = new CountryLookupIndex(null);
+        lookupIndex.rebuild(data.countries);
+        resolver = new PrefixResolver(null, null);
+        resolver.rebuild(data.countries, data.prefixes);
+        suggestIndex = new CountrySuggestIndex(null);
+        suggestIndex.rebuild(data.countries);
+
+        codes = new String[SAMPLES];
+        names = new String[SAMPLES];
+        phoneCodes = new String[SAMPLES];
+        partialNames = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            Country country = data.countries.get(i % data.countries.size());
+            codes[i] = country.getCode().toLowerCase(Locale.ROOT);
+            names[i] = country.getName().toUpperCase(Locale.ROOT);
+            phoneCodes[i] = country.getPhoneCode();
+            partialNames[i] = country.getName().substring(0, 9 + i % 2).toLowerCase(Locale.ROOT);
+        }
+        numbers = data.numbers(SAMPLES, 7);
+        formattedNumbers = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            String number = numbers[i];
+            formattedNumbers[i] = number.substring(0, 4) + " (" + number.substring(4, 7) + ") "
+                    + number.substring(7, 10) + "-" + number.substring(10);
+        }
+    }
+
+    private int advance() {
+        next = (next + 1) & (SAMPLES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Optional<String> findByCode() {
+        return lookupIndex.find(codes[advance()]);
+    }
+
+    @Benchmark
+    public Optional<String> findByName() {
+        return lookupIndex.find(names[advance()]);
+    }
+
+    @Benchmark
+    public Optional<String> findByPhoneCode() {
+        return lookupIndex.find(phoneCodes[advance()]);
+    }
+
+    @Benchmark
+    public List<CountrySuggestResponse> suggest() {
+        return suggestIndex.suggest(partialNames[advance()], 10);
+    }
+
+    @Benchmark
+    public Optional<ResolveDtoResponse> resolve() {
+        return resolver.resolve(numbers[advance()]);
+    }
+
+    @Benchmark
+    public Optional<ResolveDtoResponse> resolveFormatted() {
+        return resolver.resolve(formattedNumbers[advance()]);
+    }
+}
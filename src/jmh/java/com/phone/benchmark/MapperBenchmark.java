@@ -0,0 +1,71 @@
+package com.phone.benchmark;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.mapper.CountryMapper;
+import com.phone.mapper.PrefixMapper;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Entity to DTO mapping. Run with {@code -prof gc} (the profile default) to get the
+ * allocation rate per operation next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private PrefixMapper prefixMapper;
+    private CountryMapper countryMapper;
+    private List<Country> countries;
+    private List<PhoneNumberPrefix> prefixes;
+    private Country country;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(100_000);
+        prefixMapper = new PrefixMapper(null);
+        countryMapper = new CountryMapper(prefixMapper);
+        countries = data.countries;
+        prefixes = data.prefixes;
+        country = countries.get(0);
+    }
+
+    @Benchmark
+    public PrefixDtoResponse prefixToDto() {
+        next = (next + 1) % prefixes.size();
+        return prefixMapper.toDto(prefixes.get(next));
+    }
+
+    @Benchmark
+    public CountryDtoResponse countryToDto() {
+        return countryMapper.toDto(country);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void allCountriesToDto(Blackhole blackhole) {
+        for (Country entity : countries) {
+            blackhole.consume(countryMapper.toDto(entity));
+        }
+    }
+}
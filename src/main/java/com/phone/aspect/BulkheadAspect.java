@@ -0,0 +1,46 @@
+package com.phone.aspect;
+
+import com.phone.concurrency.DatabaseBulkhead;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs outside the transaction interceptor, so a permit is taken before a connection is
+ * borrowed and returned after it goes back to the pool.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BulkheadAspect {
+
+    private final DatabaseBulkhead bulkhead;
+    private final Map<Method, Boolean> guarded = new ConcurrentHashMap<>();
+
+    public BulkheadAspect(DatabaseBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Around("com.phone.aspect.DatabaseCalls.serviceCall()")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (!guarded.computeIfAbsent(method, DatabaseCalls::needsConnection)
+                || !bulkhead.acquire()) {
+            return joinPoint.proceed();
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
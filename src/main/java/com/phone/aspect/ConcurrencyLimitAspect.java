@@ -0,0 +1,87 @@
+package com.phone.aspect;
+
+import com.phone.concurrency.AdaptiveConcurrencyLimiter;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Outermost around database-bound service calls: rejects over the adaptive limit before
+ * the bulkhead or the connection pool is reached, and reports each call's duration, with
+ * timeouts and pool exhaustion marked as drops. Inside {@code SUPPORTS} reads and bulk
+ * imports or exports the limit is taken per repository call instead, so a memory-served
+ * read costs nothing, a fallback to the database is still limited, and a long transfer
+ * neither holds a slot for minutes nor skews the latency baseline.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<Method, Boolean> guarded = new ConcurrentHashMap<>();
+    private final ThreadLocal<Boolean> perStatement = new ThreadLocal<>();
+
+    public ConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Around("com.phone.aspect.DatabaseCalls.serviceCall() "
+            + "&& !com.phone.aspect.DatabaseCalls.bulkTransfer()")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return guarded.computeIfAbsent(method, DatabaseCalls::needsConnection)
+                ? measure(joinPoint) : perStatement(joinPoint);
+    }
+
+    @Around("com.phone.aspect.DatabaseCalls.bulkTransfer()")
+    public Object limitBulk(ProceedingJoinPoint joinPoint) throws Throwable {
+        return perStatement(joinPoint);
+    }
+
+    @Around("com.phone.aspect.DatabaseCalls.repositoryCall()")
+    public Object limitStatement(ProceedingJoinPoint joinPoint) throws Throwable {
+        return perStatement.get() == null ? joinPoint.proceed() : measure(joinPoint);
+    }
+
+    private Object perStatement(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (perStatement.get() != null) {
+            return joinPoint.proceed();
+        }
+        perStatement.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            perStatement.remove();
+        }
+    }
+
+    private Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!limiter.acquire()) {
+            return joinPoint.proceed();
+        }
+        long started = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException
+                 | CannotCreateTransactionException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            limiter.release(System.nanoTime() - started, dropped);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.phone.aspect;
+
+import jakarta.transaction.Transactional;
+import java.lang.reflect.Method;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * Service methods that borrow a database connection. Methods running with
+ * {@code SUPPORTS} or weaker propagation are served from caches and in-memory snapshots
+ * and are left out by {@link #needsConnection(Method)}; when they fall back to the
+ * database it shows up as {@link #repositoryCall()} inside them. Imports and exports run
+ * for as long as the file takes and are told apart by {@link #bulkTransfer()}.
+ */
+public final class DatabaseCalls {
+
+    private DatabaseCalls() {
+    }
+
+    @Pointcut("within(com.phone.service..*) && (@within(jakarta.transaction.Transactional) "
+            + "|| @annotation(jakarta.transaction.Transactional) "
+            + "|| execution(public * com.phone.service.PrefixImportService.*(..)))")
+    public void serviceCall() {
+    }
+
+    @Pointcut("within(com.phone.service.PrefixImportService) "
+            + "|| within(com.phone.service.JsonExportService)")
+    public void bulkTransfer() {
+    }
+
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repositoryCall() {
+    }
+
+    public static boolean needsConnection(Method method) {
+        Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method,
+                Transactional.class);
+        if (transactional == null) {
+            transactional = AnnotatedElementUtils.findMergedAnnotation(
+                    method.getDeclaringClass(), Transactional.class);
+        }
+        return transactional == null
+                || transactional.value() == Transactional.TxType.REQUIRED
+                || transactional.value() == Transactional.TxType.REQUIRES_NEW
+                || transactional.value() == Transactional.TxType.MANDATORY;
+    }
+}
@@ -0,0 +1,83 @@
+package com.phone.aspect;
+
+import com.phone.metrics.LatencyHistogram;
+import com.phone.metrics.LatencyRegistry;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+public class LatencyAspect {
+    private static final Logger logger = LoggerFactory.getLogger(LatencyAspect.class);
+
+    private final LatencyRegistry registry;
+    private final int sampleRate;
+    private final Map<Method, LatencyHistogram> endpoints = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Map<Method, LatencyHistogram>> repositories =
+            new ConcurrentHashMap<>();
+
+    public LatencyAspect(LatencyRegistry registry,
+                         @Value("${app.tracing.sample-rate:100}") int sampleRate) {
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+    }
+
+    @Around("within(com.phone.controller..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController)")
+    public Object timeEndpoint(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LatencyHistogram histogram = endpoints.computeIfAbsent(method, m -> registry.histogram(
+                "endpoint:" + m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        return time(joinPoint, histogram);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object proxy = joinPoint.getThis();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LatencyHistogram histogram = repositories
+                .computeIfAbsent(proxy.getClass(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> registry.histogram(
+                        "repository:" + repositoryName(proxy) + "." + m.getName()));
+        return time(joinPoint, histogram);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, LatencyHistogram histogram)
+            throws Throwable {
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            histogram.record(elapsed);
+            if (sampleRate > 0 && logger.isDebugEnabled()
+                    && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+                logger.debug("Трассировка: {} за {} мкс{}", joinPoint.getSignature().toShortString(),
+                        elapsed / 1_000, failed ? " (исключение)" : "");
+            }
+        }
+    }
+
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (type.getName().startsWith("com.phone.")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
@@ -1,16 +1,16 @@
 package com.phone.cache;
 
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("prefixes");
+    public LfuCacheManager cacheManager(CacheProperties properties) {
+        return new LfuCacheManager(properties);
     }
 }
@@ -0,0 +1,21 @@
+package com.phone.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code app.cache.defaults.*} applies to any cache without its own
+ * {@code app.cache.specs.<name>.*} entry.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+    private CacheSpec defaults = new CacheSpec();
+    private Map<String, CacheSpec> specs = new LinkedHashMap<>();
+
+    public CacheSpec specFor(String name) {
+        return specs.getOrDefault(name, defaults);
+    }
+}
@@ -0,0 +1,23 @@
+package com.phone.cache;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Limits of one cache: entry count, optional time-to-live since the last write and an
+ * optional total weight, where an entry weighs {@link Weighted#weight()} or 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheSpec {
+    private int maxSize = 1000;
+    private Duration ttl;
+    private long maxWeight;
+
+    public static CacheSpec ofSize(int maxSize) {
+        return new CacheSpec(maxSize, null, 0);
+    }
+}
@@ -0,0 +1,78 @@
+package com.phone.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Monotonic data versions for conditional GETs: one per country and one for the whole
+ * dataset. Versions are bumped only after the writing transaction commits, so a reader
+ * that takes the version before querying never pairs a new tag with old rows. The epoch
+ * keeps tags from a previous process from matching after a restart.
+ */
+@Component
+public class DatasetVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong global = new AtomicLong();
+    private final Map<String, AtomicLong> countries = new ConcurrentHashMap<>();
+
+    public long global() {
+        return global.get();
+    }
+
+    public long country(String code) {
+        AtomicLong version = countries.get(code);
+        return version == null ? 0 : version.get();
+    }
+
+    public String globalTag() {
+        return tag(global());
+    }
+
+    public String countryTag(String code) {
+        return tag(country(code));
+    }
+
+    public void changed(String code) {
+        changed(List.of(code));
+    }
+
+    public void changed(Collection<String> codes) {
+        if (codes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(codes);
+            return;
+        }
+        List<String> snapshot = List.copyOf(codes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(snapshot);
+            }
+        });
+    }
+
+    public void changedAll() {
+        countries.values().forEach(AtomicLong::incrementAndGet);
+        global.incrementAndGet();
+    }
+
+    private void bump(Collection<String> codes) {
+        for (String code : codes) {
+            countries.computeIfAbsent(code, k -> new AtomicLong()).incrementAndGet();
+        }
+        global.incrementAndGet();
+    }
+
+    private String tag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+}
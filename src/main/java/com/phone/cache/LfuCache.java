@@ -1,86 +1,468 @@
 package com.phone.cache;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Striped LFU cache. Every stripe keeps its entries in frequency buckets ordered from the
+ * least to the most used, so get, put and eviction are O(1). Frequencies are halved once a
+ * stripe has seen {@code AGING_FACTOR * capacity} accesses, letting stale hot keys age out.
+ * A {@link CacheSpec} can add a time-to-live since the last write and a total weight limit;
+ * expired entries are dropped on read, overweight stripes evict the least used entries.
+ * The hottest keys can be exported with their frequencies and seeded back after a restart.
+ */
 @Slf4j
-public abstract class LfuCache<T> {
+public abstract class LfuCache<K, V> {
+
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int AGING_FACTOR = 10;
 
     private final int capacity;
-    private final Map<Long, Entry<T>> cache = new HashMap<>();
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
 
-    protected static class Entry<T> {
-        T value;
+    protected static class Entry<K, V> {
+        final K key;
+        V value;
         int frequency;
+        long weight;
+        long expiresAt;
+        Entry<K, V> prev;
+        Entry<K, V> next;
+        Bucket<K, V> bucket;
 
-        Entry(T value) {
+        Entry(K key, V value, long weight, long expiresAt) {
+            this.key = key;
             this.value = value;
             this.frequency = 1;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Bucket<K, V> {
+        int frequency;
+        Entry<K, V> head;
+        Entry<K, V> tail;
+        Bucket<K, V> prev;
+        Bucket<K, V> next;
+
+        Bucket(int frequency) {
+            this.frequency = frequency;
         }
     }
 
     protected LfuCache(int capacity) {
-        this.capacity = capacity;
+        this(capacity, Runtime.getRuntime().availableProcessors());
     }
 
-    public T get(Long id) {
-        Entry<T> entry = cache.get(id);
-        if (entry == null) {
-            log.info("❌ LFU Cache: Item NOT found in cache. ID: {}", id);
-            return null;
+    protected LfuCache(int capacity, int concurrencyLevel) {
+        this(CacheSpec.ofSize(capacity), concurrencyLevel, System::nanoTime);
+    }
+
+    protected LfuCache(CacheSpec spec) {
+        this(spec, Runtime.getRuntime().availableProcessors(), System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    LfuCache(CacheSpec spec, int concurrencyLevel, LongSupplier clock) {
+        int capacity = spec.getMaxSize();
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
         }
+        this.capacity = capacity;
+        this.ttlNanos = spec.getTtl() == null ? 0 : spec.getTtl().toNanos();
+        this.clock = clock;
 
-        entry.frequency++;
+        int stripes = 1;
+        while (stripes * 2 <= concurrencyLevel
+                && capacity / (stripes * 2) >= MIN_SEGMENT_CAPACITY) {
+            stripes *= 2;
+        }
+        long maxWeight = spec.getMaxWeight();
+        this.segments = new Segment[stripes];
+        for (int i = 0; i < stripes; i++) {
+            segments[i] = new Segment<>(capacity / stripes + (i < capacity % stripes ? 1 : 0),
+                    maxWeight > 0 ? Math.max(1, (maxWeight + stripes - 1) / stripes) : 0);
+        }
+        this.segmentMask = stripes - 1;
+    }
 
-        log.info("✅ LFU Cache: Item found and retrieved from cache. ID: {},"
-                + " Access frequency: {}", id, entry.frequency);
+    public V get(K id) {
+        Segment<K, V> segment = segmentFor(id);
+        V value;
+        int frequency;
+        segment.lock.lock();
+        try {
+            Entry<K, V> entry = segment.entries.get(id);
+            if (entry != null && expired(entry)) {
+                segment.entries.remove(id);
+                segment.unlink(entry);
+                entry = null;
+            }
+            if (entry == null) {
+                value = null;
+                frequency = 0;
+            } else {
+                segment.touch(entry);
+                value = entry.value;
+                frequency = entry.frequency;
+            }
+        } finally {
+            segment.lock.unlock();
+        }
 
-        return entry.value;
+        if (frequency == 0) {
+            log.debug("❌ LFU Cache: Item NOT found in cache. ID: {}", id);
+            return null;
+        }
+        log.debug("✅ LFU Cache: Item found and retrieved from cache. ID: {},"
+                + " Access frequency: {}", id, frequency);
+        return value;
     }
 
-    public void put(Long id, T value) {
-        if (cache.containsKey(id)) {
-            Entry<T> entry = cache.get(id);
-            entry.value = value;
-            entry.frequency++;
-            log.info("🔥 LFU Cache: Item updated in cache. ID: {}, "
-                    + "New frequency: {}", id, entry.frequency);
-        } else {
-            if (cache.size() >= capacity) {
-                evictLeastFrequentlyUsed();
+    public void put(K id, V value) {
+        Segment<K, V> segment = segmentFor(id);
+        long weight = weigh(value);
+        long expiresAt = ttlNanos > 0 ? clock.getAsLong() + ttlNanos : 0;
+        int evicted = 0;
+        boolean added;
+        segment.lock.lock();
+        try {
+            Entry<K, V> entry = segment.entries.get(id);
+            if (segment.maxWeight > 0 && weight > segment.maxWeight) {
+                if (entry != null) {
+                    segment.entries.remove(id);
+                    segment.unlink(entry);
+                }
+                log.debug("Item is heavier than the cache allows, not cached. ID: {}", id);
+                return;
+            }
+            added = entry == null;
+            if (added) {
+                while (!segment.entries.isEmpty() && (segment.entries.size() >= segment.capacity
+                        || segment.overweight(weight))) {
+                    segment.evict(null);
+                    evicted++;
+                }
+                segment.insert(new Entry<>(id, value, weight, expiresAt));
+            } else {
+                segment.weight += weight - entry.weight;
+                entry.value = value;
+                entry.weight = weight;
+                entry.expiresAt = expiresAt;
+                segment.touch(entry);
+                while (segment.overweight(0) && segment.entries.size() > 1) {
+                    segment.evict(entry);
+                    evicted++;
+                }
             }
-            cache.put(id, new Entry<>(value));
-            log.info("🔥 LFU Cache: New item added to cache. ID: {}", id);
+        } finally {
+            segment.lock.unlock();
         }
+
+        if (evicted > 0) {
+            log.debug("Evicted {} item(s) from cache to fit ID: {}", evicted, id);
+        }
+        log.debug(added ? "🔥 LFU Cache: New item added to cache. ID: {}"
+                : "🔥 LFU Cache: Item updated in cache. ID: {}", id);
     }
 
-    private void evictLeastFrequentlyUsed() {
-        Long lfuKey = null;
-        int minFrequency = Integer.MAX_VALUE;
+    /**
+     * Adds {@code value} with a starting access frequency unless the key is already cached.
+     * A full stripe makes room only if its least used entry is colder than the seed.
+     */
+    public void seed(K id, V value, int frequency) {
+        Segment<K, V> segment = segmentFor(id);
+        long weight = weigh(value);
+        long expiresAt = ttlNanos > 0 ? clock.getAsLong() + ttlNanos : 0;
+        Entry<K, V> entry = new Entry<>(id, value, weight, expiresAt);
+        entry.frequency = Math.max(1, frequency);
+        segment.lock.lock();
+        try {
+            if (segment.entries.containsKey(id)
+                    || (segment.maxWeight > 0 && weight > segment.maxWeight)) {
+                return;
+            }
+            while (!segment.entries.isEmpty() && (segment.entries.size() >= segment.capacity
+                    || segment.overweight(weight))) {
+                if (segment.head.frequency >= entry.frequency) {
+                    return;
+                }
+                segment.evict(null);
+            }
+            segment.insert(entry);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
 
-        for (Map.Entry<Long, Entry<T>> entry : cache.entrySet()) {
-            if (entry.getValue().frequency < minFrequency) {
-                minFrequency = entry.getValue().frequency;
-                lfuKey = entry.getKey();
+    /**
+     * Up to {@code limit} live keys with their current access frequencies, most used first.
+     */
+    public List<Map.Entry<K, Integer>> hottest(int limit) {
+        List<Map.Entry<K, Integer>> hottest = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                Bucket<K, V> bucket = segment.head;
+                while (bucket != null && bucket.next != null) {
+                    bucket = bucket.next;
+                }
+                int taken = 0;
+                for (; bucket != null && taken < limit; bucket = bucket.prev) {
+                    for (Entry<K, V> entry = bucket.head; entry != null && taken < limit;
+                            entry = entry.next) {
+                        if (!expired(entry)) {
+                            hottest.add(Map.entry(entry.key, entry.frequency));
+                            taken++;
+                        }
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
             }
         }
+        hottest.sort(Map.Entry.<K, Integer>comparingByValue().reversed());
+        return hottest.size() > limit ? List.copyOf(hottest.subList(0, limit)) : hottest;
+    }
 
-        if (lfuKey != null) {
-            cache.remove(lfuKey);
-            log.info("Evicted item from cache. ID: {},"
-                    + " Frequency at removal: {}", lfuKey, minFrequency);
+    /**
+     * Whether {@code id} is cached, without counting as an access.
+     */
+    public boolean contains(K id) {
+        Segment<K, V> segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            Entry<K, V> entry = segment.entries.get(id);
+            return entry != null && !expired(entry);
+        } finally {
+            segment.lock.unlock();
         }
     }
 
-    public void remove(Long id) {
-        if (cache.remove(id) != null) {
-            log.info("Item successfully removed from cache. ID: {}", id);
+    public void remove(K id) {
+        Segment<K, V> segment = segmentFor(id);
+        Entry<K, V> removed;
+        segment.lock.lock();
+        try {
+            removed = segment.entries.remove(id);
+            if (removed != null) {
+                segment.unlink(removed);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (removed != null) {
+            log.debug("Item successfully removed from cache. ID: {}", id);
         }
     }
 
     public void clear() {
-        cache.clear();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+                segment.head = null;
+                segment.accesses = 0;
+                segment.weight = 0;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
         log.info("All items have been successfully cleared from the cache.");
     }
-}
\ No newline at end of file
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    protected long weigh(V value) {
+        return value instanceof Weighted weighted ? Math.max(1, weighted.weight()) : 1;
+    }
+
+    private boolean expired(Entry<K, V> entry) {
+        return entry.expiresAt != 0 && clock.getAsLong() - entry.expiresAt >= 0;
+    }
+
+    private Segment<K, V> segmentFor(K id) {
+        int hash = id.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & segmentMask];
+    }
+
+    private static final class Segment<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final int capacity;
+        final long maxWeight;
+        final Map<K, Entry<K, V>> entries;
+        Bucket<K, V> head;
+        int accesses;
+        long weight;
+
+        Segment(int capacity, long maxWeight) {
+            this.capacity = Math.max(1, capacity);
+            this.maxWeight = maxWeight;
+            this.entries = new HashMap<>(this.capacity * 4 / 3 + 1);
+        }
+
+        boolean overweight(long incoming) {
+            return maxWeight > 0 && weight + incoming > maxWeight;
+        }
+
+        void insert(Entry<K, V> entry) {
+            entries.put(entry.key, entry);
+            weight += entry.weight;
+            Bucket<K, V> before = null;
+            Bucket<K, V> bucket = head;
+            while (bucket != null && bucket.frequency < entry.frequency) {
+                before = bucket;
+                bucket = bucket.next;
+            }
+            if (bucket == null || bucket.frequency != entry.frequency) {
+                Bucket<K, V> created = new Bucket<>(entry.frequency);
+                created.prev = before;
+                created.next = bucket;
+                if (bucket != null) {
+                    bucket.prev = created;
+                }
+                if (before == null) {
+                    head = created;
+                } else {
+                    before.next = created;
+                }
+                bucket = created;
+            }
+            append(bucket, entry);
+            age();
+        }
+
+        void touch(Entry<K, V> entry) {
+            Bucket<K, V> current = entry.bucket;
+            int frequency = entry.frequency + 1;
+            Bucket<K, V> target = current.next;
+            if (target == null || target.frequency != frequency) {
+                target = new Bucket<>(frequency);
+                target.prev = current;
+                target.next = current.next;
+                if (current.next != null) {
+                    current.next.prev = target;
+                }
+                current.next = target;
+            }
+            detach(entry);
+            entry.frequency = frequency;
+            append(target, entry);
+            age();
+        }
+
+        Entry<K, V> evict(Entry<K, V> keep) {
+            Entry<K, V> victim = head.head;
+            if (victim == keep) {
+                victim = keep.next != null ? keep.next : head.next.head;
+            }
+            entries.remove(victim.key);
+            unlink(victim);
+            return victim;
+        }
+
+        void unlink(Entry<K, V> entry) {
+            detach(entry);
+            entry.bucket = null;
+            weight -= entry.weight;
+        }
+
+        private void append(Bucket<K, V> bucket, Entry<K, V> entry) {
+            entry.bucket = bucket;
+            entry.prev = bucket.tail;
+            entry.next = null;
+            if (bucket.tail == null) {
+                bucket.head = entry;
+            } else {
+                bucket.tail.next = entry;
+            }
+            bucket.tail = entry;
+        }
+
+        private void detach(Entry<K, V> entry) {
+            Bucket<K, V> bucket = entry.bucket;
+            if (entry.prev == null) {
+                bucket.head = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next == null) {
+                bucket.tail = entry.prev;
+            } else {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            if (bucket.head == null) {
+                removeBucket(bucket);
+            }
+        }
+
+        private void removeBucket(Bucket<K, V> bucket) {
+            if (bucket.prev == null) {
+                head = bucket.next;
+            } else {
+                bucket.prev.next = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+        }
+
+        private void age() {
+            if (++accesses < capacity * AGING_FACTOR) {
+                return;
+            }
+            accesses = 0;
+
+            Bucket<K, V> merged = null;
+            for (Bucket<K, V> bucket = head; bucket != null; bucket = bucket.next) {
+                int frequency = Math.max(1, bucket.frequency >>> 1);
+                for (Entry<K, V> entry = bucket.head; entry != null; entry = entry.next) {
+                    entry.frequency = frequency;
+                }
+                if (merged != null && merged.frequency == frequency) {
+                    for (Entry<K, V> entry = bucket.head; entry != null; entry = entry.next) {
+                        entry.bucket = merged;
+                    }
+                    bucket.head.prev = merged.tail;
+                    merged.tail.next = bucket.head;
+                    merged.tail = bucket.tail;
+                    merged.next = bucket.next;
+                    if (bucket.next != null) {
+                        bucket.next.prev = merged;
+                    }
+                } else {
+                    bucket.frequency = frequency;
+                    merged = bucket;
+                }
+            }
+        }
+    }
+}
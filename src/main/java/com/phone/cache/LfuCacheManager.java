@@ -0,0 +1,41 @@
+package com.phone.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Creates every cache on first use from {@link CacheProperties}, so all caches in the
+ * application are bounded and configured in one place.
+ */
+@Slf4j
+public class LfuCacheManager implements CacheManager {
+
+    private final CacheProperties properties;
+    private final Map<String, SpringLfuCache> caches = new ConcurrentHashMap<>();
+
+    public LfuCacheManager(CacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public SpringLfuCache getCache(String name) {
+        return caches.computeIfAbsent(name, this::create);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private SpringLfuCache create(String name) {
+        CacheSpec spec = properties.specFor(name);
+        log.info("Cache '{}' created: max size {}, ttl {}, max weight {}", name,
+                spec.getMaxSize(), spec.getTtl(), spec.getMaxWeight());
+        return new SpringLfuCache(name, spec);
+    }
+}
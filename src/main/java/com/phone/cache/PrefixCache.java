@@ -1,11 +1,142 @@
 package com.phone.cache;
 
 import com.phone.dto.PrefixDtoResponse;
+import com.phone.index.AfterCommit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
+/**
+ * Prefix DTOs by id, with a secondary index from country code to the cached ids so a
+ * whole country can be evicted in one call. Ids the LFU evicted on its own are pruned
+ * from the index once it grows past twice the cache capacity. Writes made inside a
+ * transaction take effect only after it commits.
+ */
 @Component
-public class PrefixCache extends LfuCache<PrefixDtoResponse> {
-    public PrefixCache() {
-        super(10);
+public class PrefixCache {
+    public static final String NAME = "prefixes";
+
+    private final Cache cache;
+    private final Map<String, Set<Long>> idsByCountry = new ConcurrentHashMap<>();
+    private final Map<Long, String> countryById = new ConcurrentHashMap<>();
+
+    public PrefixCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(NAME);
+    }
+
+    public PrefixDtoResponse get(Long id) {
+        return cache.get(id, PrefixDtoResponse.class);
+    }
+
+    public void put(Long id, PrefixDtoResponse value) {
+        AfterCommit.run(this, () -> {
+            cache.put(id, value);
+            index(id, value);
+        });
+    }
+
+    public void seed(Long id, PrefixDtoResponse value, int frequency) {
+        LfuCache<Object, Object> store = store();
+        if (store == null) {
+            cache.putIfAbsent(id, value);
+        } else {
+            store.seed(id, value, frequency);
+        }
+        index(id, value);
+    }
+
+    /**
+     * Ids of the most used prefixes with their access frequencies, hottest first.
+     */
+    public Map<Long, Integer> hottest(int limit) {
+        Map<Long, Integer> hottest = new LinkedHashMap<>();
+        LfuCache<Object, Object> store = store();
+        if (store != null) {
+            for (Map.Entry<Object, Integer> entry : store.hottest(limit)) {
+                hottest.put((Long) entry.getKey(), entry.getValue());
+            }
+        }
+        return hottest;
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(this, () -> evict(id));
+    }
+
+    public void removeCountry(String code) {
+        AfterCommit.run(this, () -> evictCountry(code));
+    }
+
+    public void clear() {
+        AfterCommit.run(this, () -> {
+            cache.clear();
+            idsByCountry.clear();
+            countryById.clear();
+        });
+    }
+
+    private void evict(Long id) {
+        cache.evict(id);
+        String code = countryById.remove(id);
+        if (code != null) {
+            unindex(code, id);
+        }
+    }
+
+    private void evictCountry(String code) {
+        Set<Long> ids = idsByCountry.remove(code);
+        if (ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            cache.evict(id);
+            countryById.remove(id, code);
+        }
+    }
+
+    private void index(Long id, PrefixDtoResponse value) {
+        if (value == null || value.getCountryCode() == null) {
+            return;
+        }
+        String code = value.getCountryCode();
+        String previous = countryById.put(id, code);
+        if (previous != null && !previous.equals(code)) {
+            unindex(previous, id);
+        }
+        idsByCountry.compute(code, (k, ids) -> {
+            Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            result.add(id);
+            return result;
+        });
+        prune();
+    }
+
+    private void unindex(String code, Long id) {
+        idsByCountry.computeIfPresent(code, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void prune() {
+        LfuCache<Object, Object> store = store();
+        if (store == null || countryById.size() <= 2 * store.capacity()) {
+            return;
+        }
+        countryById.forEach((id, code) -> {
+            if (!store.contains(id) && countryById.remove(id, code)) {
+                unindex(code, id);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private LfuCache<Object, Object> store() {
+        return cache.getNativeCache() instanceof LfuCache<?, ?> lfu
+                ? (LfuCache<Object, Object>) lfu : null;
     }
 }
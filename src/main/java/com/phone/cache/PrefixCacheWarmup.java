@@ -0,0 +1,128 @@
+package com.phone.cache;
+
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link PrefixCache} warm across restarts. The hottest ids and their LFU
+ * frequencies are saved to a local file on a schedule and at shutdown, one
+ * {@code id frequency} pair per line. On startup a background thread loads those prefixes
+ * with one query and seeds them with their old frequencies; if the data changed meanwhile
+ * the seeded entries are dropped again rather than risk serving stale rows.
+ */
+@Slf4j
+@Component
+public class PrefixCacheWarmup {
+
+    private final PrefixCache cache;
+    private final PhoneNumberPrefixRepository repository;
+    private final DatasetVersions versions;
+    private final Path path;
+    private final int top;
+
+    public PrefixCacheWarmup(PrefixCache cache,
+                             PhoneNumberPrefixRepository repository,
+                             DatasetVersions versions,
+                             @Value("${app.cache.warmup.file:}") String path,
+                             @Value("${app.cache.warmup.top:500}") int top) {
+        this.cache = cache;
+        this.repository = repository;
+        this.versions = versions;
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        this.top = top;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return;
+        }
+        Thread loader = new Thread(this::warmUp, "cache-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void warmUp() {
+        Map<Long, Integer> frequencies = read();
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        try {
+            long version = versions.global();
+            List<PrefixDtoResponse> prefixes = repository.findDtosByIdIn(frequencies.keySet());
+            for (PrefixDtoResponse prefix : prefixes) {
+                cache.seed(prefix.getId(), prefix, frequencies.get(prefix.getId()));
+            }
+            if (versions.global() != version) {
+                prefixes.forEach(prefix -> cache.remove(prefix.getId()));
+                log.info("Prefix cache warm-up discarded, data changed while loading");
+                return;
+            }
+            log.info("Prefix cache warmed up: {} of {} saved prefixes", prefixes.size(),
+                    frequencies.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm up prefix cache: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.cache.warmup.save-interval:1m}",
+            initialDelayString = "${app.cache.warmup.save-interval:1m}")
+    public void save() {
+        if (path == null) {
+            return;
+        }
+        Map<Long, Integer> hottest = cache.hottest(top);
+        if (hottest.isEmpty()) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+                for (Map.Entry<Long, Integer> entry : hottest.entrySet()) {
+                    out.write(entry.getKey() + " " + entry.getValue());
+                    out.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved {} hot prefix ids to {}", hottest.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to save hot prefix ids to {}: {}", path, e.getMessage());
+        }
+    }
+
+    Map<Long, Integer> read() {
+        Map<Long, Integer> frequencies = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(path)) {
+                String[] fields = line.strip().split("\\s+");
+                if (fields.length != 2 || frequencies.size() >= top) {
+                    continue;
+                }
+                frequencies.put(Long.parseLong(fields[0]), Integer.parseInt(fields[1]));
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable hot prefix file {}: {}", path, e.getMessage());
+            return Map.of();
+        }
+        return frequencies;
+    }
+}
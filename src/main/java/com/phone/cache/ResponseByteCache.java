@@ -0,0 +1,118 @@
+package com.phone.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-encoded JSON bodies of hot GET responses, keyed by resource. Each entry remembers
+ * the version of the country it was built from and is dropped on the first read after
+ * that country changes, so writes invalidate exactly the affected responses.
+ */
+@Component
+public class ResponseByteCache {
+    public static final String NAME = "responses";
+
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    public record Encoded(String countryCode, long version, byte[] json, byte[] gzip)
+            implements Weighted {
+        @Override
+        public long weight() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private final Cache cache;
+    private final DatasetVersions versions;
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+
+    public ResponseByteCache(CacheManager cacheManager,
+                             DatasetVersions versions,
+                             ObjectMapper objectMapper,
+                             @Value("${app.cache.responses.gzip:true}") boolean gzip) {
+        this.cache = cacheManager.getCache(NAME);
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+    }
+
+    public <T> ResponseEntity<byte[]> respond(String key, String acceptEncoding,
+                                              Supplier<T> loader,
+                                              Function<T, String> countryCode) {
+        return toResponse(getOrLoad(key, loader, countryCode), acceptEncoding);
+    }
+
+    public Encoded get(String key) {
+        return cache.get(key, Encoded.class);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    <T> Encoded getOrLoad(String key, Supplier<T> loader, Function<T, String> countryCode) {
+        Encoded cached = get(key);
+        if (cached != null) {
+            if (cached.version() == versions.country(cached.countryCode())) {
+                return cached;
+            }
+            cache.evict(key);
+        }
+
+        long global = versions.global();
+        T value = loader.get();
+        String code = countryCode.apply(value);
+        Encoded encoded = encode(value, code, versions.country(code));
+        if (versions.global() == global) {
+            cache.put(key, encoded);
+        }
+        return encoded;
+    }
+
+    private Encoded encode(Object value, String code, long version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Encoded(code, version, json,
+                    gzip && json.length >= MIN_GZIP_SIZE ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cached response", e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> toResponse(Encoded encoded, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+        if (encoded.gzip() == null) {
+            return builder.body(encoded.json());
+        }
+        builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+        }
+        return builder.body(encoded.json());
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package com.phone.cache;
+
+import java.util.concurrent.Callable;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} view of an {@link LfuCache}.
+ */
+public class SpringLfuCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Store store;
+
+    static final class Store extends LfuCache<Object, Object> {
+        Store(CacheSpec spec) {
+            super(spec);
+        }
+    }
+
+    public SpringLfuCache(String name, CacheSpec spec) {
+        super(true);
+        this.name = name;
+        this.store = new Store(spec);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public LfuCache<Object, Object> getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return store.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = store.get(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        store.clear();
+    }
+}
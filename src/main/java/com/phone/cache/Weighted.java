@@ -0,0 +1,5 @@
+package com.phone.cache;
+
+public interface Weighted {
+    long weight();
+}
@@ -0,0 +1,140 @@
+package com.phone.concurrency;
+
+import com.phone.dto.ConcurrencyLimitStatsResponse;
+import com.phone.exception.OverloadedException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gradient-style adaptive limit on concurrent database-bound calls. Each call's duration
+ * is a latency sample: a fast moving average tracks current latency, a slow one the
+ * baseline. While current latency stays within {@code tolerance} times the baseline the
+ * limit grows by about its square root; past that it shrinks in proportion to the
+ * overshoot, and timeouts or pool exhaustion cut it by a tenth. Calls over the limit fail
+ * at once with {@link OverloadedException} instead of queueing on the connection pool.
+ * Nested calls on a thread that already counts as in flight pass straight through.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.limiter.enabled", havingValue = "true")
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double BASELINE_WEIGHT = 0.002;
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile int limit;
+    private double estimate;
+    private double shortNanos;
+    private double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(@Value("${app.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${app.limiter.min-limit:2}") int minLimit,
+                                      @Value("${app.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${app.limiter.tolerance:2.0}") double tolerance) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limiter bounds must satisfy 0 < min <= max");
+        }
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("Limiter tolerance must be at least 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimate = clamp(initialLimit);
+        this.limit = (int) estimate;
+    }
+
+    /**
+     * Returns {@code false} when the current thread is already in flight; only a
+     * {@code true} result must be paired with {@link #release(long, boolean)}.
+     */
+    public boolean acquire() {
+        if (holding.get() != null) {
+            return false;
+        }
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                throw new OverloadedException("Сервер перегружен, повторите запрос позже",
+                        RETRY_AFTER);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        holding.set(Boolean.TRUE);
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Ends a call that took {@code nanos}; {@code drop} marks a timeout or a failure to
+     * get a connection.
+     */
+    public void release(long nanos, boolean drop) {
+        holding.remove();
+        int concurrent = inFlight.getAndDecrement();
+        if (drop) {
+            dropped.increment();
+        }
+        update(nanos, concurrent, drop);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public synchronized ConcurrencyLimitStatsResponse stats() {
+        return new ConcurrencyLimitStatsResponse(true, limit, minLimit, maxLimit, inFlight.get(),
+                accepted.sum(), rejected.sum(), dropped.sum(), (long) (shortNanos / 1000),
+                (long) (baselineNanos / 1000));
+    }
+
+    synchronized void update(long nanos, int concurrent, boolean drop) {
+        int previous = limit;
+        if (drop) {
+            estimate = clamp(estimate * BACKOFF);
+        } else if (baselineNanos == 0) {
+            shortNanos = nanos;
+            baselineNanos = nanos;
+        } else {
+            shortNanos += (nanos - shortNanos) * SHORT_WEIGHT;
+            baselineNanos += (nanos - baselineNanos) * BASELINE_WEIGHT;
+            if (baselineNanos > 2 * shortNanos) {
+                baselineNanos *= 0.95;
+            }
+            double gradient = Math.max(MIN_GRADIENT,
+                    Math.min(1.0, tolerance * baselineNanos / shortNanos));
+            if (gradient < 1.0 || concurrent >= estimate / 2) {
+                double target = estimate * gradient + Math.sqrt(estimate);
+                estimate = clamp(estimate * (1 - SMOOTHING) + target * SMOOTHING);
+            }
+        }
+        limit = (int) estimate;
+        if (limit != previous) {
+            log.debug("Concurrency limit {} -> {} (latency {} us, baseline {} us)", previous,
+                    limit, (long) (shortNanos / 1000), (long) (baselineNanos / 1000));
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
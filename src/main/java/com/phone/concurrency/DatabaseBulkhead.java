@@ -0,0 +1,99 @@
+package com.phone.concurrency;
+
+import com.phone.dto.BulkheadStatsResponse;
+import com.phone.exception.OverloadedException;
+import com.phone.metrics.LatencyHistogram;
+import com.phone.metrics.LatencyRegistry;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps concurrent transactional work at the connection pool size. Callers over the limit
+ * park on the semaphore (cheap on virtual threads) instead of blocking inside Hikari, and
+ * give up with {@link OverloadedException} after {@code app.bulkhead.max-wait}.
+ * Nested calls on a thread that already holds a permit pass straight through.
+ */
+@Component
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkhead {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Semaphore semaphore;
+    private final int permits;
+    private final long maxWaitNanos;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger parked = new AtomicInteger();
+    private final AtomicInteger peakParked = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram waits;
+
+    public DatabaseBulkhead(@Value("${app.bulkhead.permits:10}") int permits,
+                            @Value("${app.bulkhead.max-wait:5s}") Duration maxWait,
+                            LatencyRegistry registry) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Bulkhead permits must be positive");
+        }
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waits = registry.histogram("bulkhead:wait");
+    }
+
+    /**
+     * Returns {@code false} when the current thread already holds a permit; only a
+     * {@code true} result must be paired with {@link #release()}.
+     */
+    public boolean acquire() {
+        if (holding.get() != null) {
+            return false;
+        }
+        long started = System.nanoTime();
+        if (!semaphore.tryAcquire()) {
+            park();
+        }
+        waits.record(System.nanoTime() - started);
+        holding.set(Boolean.TRUE);
+        active.incrementAndGet();
+        acquired.increment();
+        return true;
+    }
+
+    public void release() {
+        holding.remove();
+        active.decrementAndGet();
+        semaphore.release();
+    }
+
+    public BulkheadStatsResponse stats() {
+        return new BulkheadStatsResponse(true, permits, active.get(), parked.get(),
+                peakParked.get(), acquired.sum(), rejected.sum(), waits.snapshot());
+    }
+
+    private void park() {
+        int waiting = parked.incrementAndGet();
+        peakParked.accumulateAndGet(waiting, Math::max);
+        boolean granted;
+        try {
+            granted = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        } finally {
+            parked.decrementAndGet();
+        }
+        if (!granted) {
+            rejected.increment();
+            throw new OverloadedException("Сервер перегружен, повторите запрос позже",
+                    RETRY_AFTER);
+        }
+    }
+}
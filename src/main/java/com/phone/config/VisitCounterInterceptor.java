@@ -0,0 +1,30 @@
+package com.phone.config;
+
+import com.phone.service.VisitCounterService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Component
+public class VisitCounterInterceptor implements HandlerInterceptor {
+
+    private final VisitCounterService visitCounterService;
+
+    public VisitCounterInterceptor(VisitCounterService visitCounterService) {
+        this.visitCounterService = visitCounterService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                             Object handler) {
+        if (handler instanceof HandlerMethod) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            visitCounterService.increment(request.getMethod() + " "
+                    + (pattern != null ? pattern : request.getRequestURI()));
+        }
+        return true;
+    }
+}
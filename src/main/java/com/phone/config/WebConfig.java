@@ -0,0 +1,21 @@
+package com.phone.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final VisitCounterInterceptor visitCounterInterceptor;
+
+    public WebConfig(VisitCounterInterceptor visitCounterInterceptor) {
+        this.visitCounterInterceptor = visitCounterInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(visitCounterInterceptor)
+                .addPathPatterns("/countries/**", "/prefixes/**");
+    }
+}
@@ -1,17 +1,29 @@
 package com.phone.controller;
 
+import com.phone.cache.DatasetVersions;
+import com.phone.cache.ResponseByteCache;
+import com.phone.dto.CountryBulkResponse;
 import com.phone.dto.CountryDtoRequest;
 import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.CountrySuggestResponse;
+import com.phone.dto.PageDtoResponse;
 import com.phone.service.CountryService;
-import com.phone.service.VisitCounterService;
+import com.phone.service.JsonExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Страны", description = "API для управления странами")
 @RestController
@@ -19,26 +31,62 @@ import org.springframework.web.bind.annotation.*;
 public class CountryController {
 
     private final CountryService service;
-    private final VisitCounterService visitCounterService;
+    private final JsonExportService exportService;
+    private final DatasetVersions versions;
+    private final ResponseByteCache responseCache;
 
-    public CountryController(CountryService service, VisitCounterService visitCounterService) {
+    public CountryController(CountryService service, JsonExportService exportService,
+                             DatasetVersions versions, ResponseByteCache responseCache) {
         this.service = service;
-        this.visitCounterService = visitCounterService;
+        this.exportService = exportService;
+        this.versions = versions;
+        this.responseCache = responseCache;
     }
 
-    @Operation(summary = "Получить список всех стран")
+    @Operation(summary = "Получить список всех стран",
+            description = "Поддерживает If-None-Match: при неизменных данных возвращает 304")
     @GetMapping
-    public List<CountryDtoResponse> getAll() {
-        visitCounterService.increment();
+    public List<CountryDtoResponse> getAll(WebRequest webRequest) {
+        if (webRequest.checkNotModified(versions.globalTag())) {
+            return null;
+        }
         return service.getAll();
     }
 
-    @Operation(summary = "Получить страну по коду")
+    @Operation(summary = "Получить страницу стран",
+            description = "Постраничная выборка по коду: следующая страница запрашивается с after = next")
+    @GetMapping("/page")
+    public PageDtoResponse<CountryDtoResponse> getPage(
+            @Parameter(description = "Код последней страны предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(defaultValue = "100") int limit) {
+        return service.getPage(after, limit);
+    }
+
+    @Operation(summary = "Выгрузить все страны потоком",
+            description = "JSON-массив пишется по мере чтения из БД курсором")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = exportService::writeCountries;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Operation(summary = "Получить страну по коду",
+            description = "Поддерживает If-None-Match: при неизменных данных возвращает 304")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CountryDtoResponse.class)))
     @GetMapping("/{code}")
-    public CountryDtoResponse getByCode(
-            @Parameter(description = "Код страны") @PathVariable String code) {
-        visitCounterService.increment();
-        return service.getByCode(code);
+    public ResponseEntity<byte[]> getByCode(
+            @Parameter(description = "Код страны") @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(versions.countryTag(code))) {
+            return null;
+        }
+        return responseCache.respond("country:" + code, acceptEncoding,
+                () -> service.getByCode(code), CountryDtoResponse::getCode);
     }
 
     @Operation(summary = "Создать новую страну")
@@ -46,7 +94,6 @@ public class CountryController {
     public CountryDtoResponse save(
             @Parameter(description = "Данные новой страны")
             @RequestBody @Valid CountryDtoRequest request) {
-        visitCounterService.increment();
         return service.save(request);
     }
 
@@ -56,7 +103,6 @@ public class CountryController {
             @Parameter(description = "Код страны") @PathVariable String code,
             @Parameter(description = "Обновленные данные страны")
             @RequestBody @Valid CountryDtoRequest request) {
-        visitCounterService.increment();
         return service.update(code, request);
     }
 
@@ -64,7 +110,6 @@ public class CountryController {
     @DeleteMapping("/{code}")
     public void delete(
             @Parameter(description = "Код страны") @PathVariable String code) {
-        visitCounterService.increment();
         service.delete(code);
     }
 
@@ -72,18 +117,28 @@ public class CountryController {
     @GetMapping("/lookup")
     public CountryDtoResponse lookup(
             @Parameter(description = "Значение для поиска") @RequestParam String value) {
-        visitCounterService.increment();
         return service.lookup(value);
     }
 
+    @Operation(summary = "Подсказки по названию, коду или телефонному коду страны",
+            description = "Ищет по началу слов названия, коду и телефонному коду, а от трех "
+                    + "символов — и по вхождению в название; регистр не учитывается")
+    @GetMapping("/suggest")
+    public List<CountrySuggestResponse> suggest(
+            @Parameter(description = "Введенный текст") @RequestParam String q,
+            @Parameter(description = "Максимальное число подсказок")
+            @RequestParam(defaultValue = "10") int limit) {
+        return service.suggest(q, limit);
+    }
+
     @Operation(summary = "Создать несколько стран",
-            description = "Создает список новых стран и возвращает их данные")
+            description = "Создает список новых стран пакетной вставкой и возвращает их данные "
+                    + "вместе со скоростью вставки")
     @PostMapping("/saveAll")
-    public ResponseEntity<List<CountryDtoResponse>> saveAll(
+    public ResponseEntity<CountryBulkResponse> saveAll(
             @Parameter(description = "Список стран для создания")
             @Valid @RequestBody List<CountryDtoRequest> requests) {
-        visitCounterService.increment();
-        List<CountryDtoResponse> result = service.saveAll(requests);
+        CountryBulkResponse result = service.saveAll(requests);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 }
@@ -0,0 +1,61 @@
+package com.phone.controller;
+
+import com.phone.concurrency.AdaptiveConcurrencyLimiter;
+import com.phone.concurrency.DatabaseBulkhead;
+import com.phone.dto.BulkheadStatsResponse;
+import com.phone.dto.ConcurrencyLimitStatsResponse;
+import com.phone.dto.LatencyStatsResponse;
+import com.phone.metrics.LatencyRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Метрики", description = "API для получения задержек эндпоинтов и репозиториев")
+@RestController
+@RequestMapping("/admin/metrics")
+public class MetricsController {
+
+    private final LatencyRegistry latencyRegistry;
+    private final ObjectProvider<DatabaseBulkhead> bulkhead;
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> limiter;
+
+    public MetricsController(LatencyRegistry latencyRegistry,
+                             ObjectProvider<DatabaseBulkhead> bulkhead,
+                             ObjectProvider<AdaptiveConcurrencyLimiter> limiter) {
+        this.latencyRegistry = latencyRegistry;
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+    }
+
+    @Operation(summary = "Получить гистограммы задержек",
+            description = "p50/p99/p999 в микросекундах по каждому эндпоинту и вызову репозитория")
+    @GetMapping("/latency")
+    public Map<String, LatencyStatsResponse> getLatency() {
+        return latencyRegistry.snapshot();
+    }
+
+    @Operation(summary = "Сбросить гистограммы задержек")
+    @PostMapping("/latency/reset")
+    public void resetLatency() {
+        latencyRegistry.reset();
+    }
+
+    @Operation(summary = "Получить состояние ограничителя обращений к БД",
+            description = "Число активных и ожидающих запросов, отказы и время ожидания разрешения")
+    @GetMapping("/bulkhead")
+    public BulkheadStatsResponse getBulkhead() {
+        DatabaseBulkhead current = bulkhead.getIfAvailable();
+        return current != null ? current.stats() : new BulkheadStatsResponse();
+    }
+
+    @Operation(summary = "Получить состояние адаптивного ограничения параллелизма",
+            description = "Текущий лимит, число выполняющихся запросов к БД, принятые и отклоненные "
+                    + "запросы, таймауты и оценки задержки в микросекундах")
+    @GetMapping("/limiter")
+    public ConcurrencyLimitStatsResponse getLimiter() {
+        AdaptiveConcurrencyLimiter current = limiter.getIfAvailable();
+        return current != null ? current.stats() : new ConcurrencyLimitStatsResponse();
+    }
+}
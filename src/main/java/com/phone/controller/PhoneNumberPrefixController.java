@@ -1,15 +1,35 @@
 package com.phone.controller;
 
+import com.phone.cache.DatasetVersions;
+import com.phone.cache.ResponseByteCache;
+import com.phone.dto.PageDtoResponse;
 import com.phone.dto.PrefixDtoRequest;
 import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixImportResponse;
+import com.phone.dto.PrefixUpsertResponse;
+import com.phone.dto.ResolveDtoResponse;
+import com.phone.service.BatchResolveService;
+import com.phone.service.JsonExportService;
 import com.phone.service.PhoneNumberPrefixService;
-import com.phone.service.VisitCounterService;
+import com.phone.service.PrefixImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Префиксы", description = "API для управления телефонными префиксами")
 @RestController
@@ -17,43 +37,109 @@ import org.springframework.web.bind.annotation.*;
 public class PhoneNumberPrefixController {
 
     private final PhoneNumberPrefixService service;
-    private final VisitCounterService visitCounterService;
+    private final PrefixImportService importService;
+    private final JsonExportService exportService;
+    private final BatchResolveService batchResolveService;
+    private final DatasetVersions versions;
+    private final ResponseByteCache responseCache;
 
-    public PhoneNumberPrefixController(PhoneNumberPrefixService service, VisitCounterService visitCounterService) {
+    public PhoneNumberPrefixController(PhoneNumberPrefixService service,
+                                       PrefixImportService importService,
+                                       JsonExportService exportService,
+                                       BatchResolveService batchResolveService,
+                                       DatasetVersions versions,
+                                       ResponseByteCache responseCache) {
         this.service = service;
-        this.visitCounterService = visitCounterService;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.batchResolveService = batchResolveService;
+        this.versions = versions;
+        this.responseCache = responseCache;
     }
 
     @Operation(summary = "Получить префиксы по названию страны")
     @GetMapping("/by-country-name")
     public List<PrefixDtoResponse> getByCountryName(
             @Parameter(description = "Название страны") @RequestParam String name) {
-        visitCounterService.increment();
         return service.getByCountryName(name);
     }
 
     @Operation(summary = "Получить все префиксы")
     @GetMapping
     public List<PrefixDtoResponse> getAll() {
-
-        visitCounterService.increment();
         return service.getAll();
     }
 
-    @Operation(summary = "Получить префиксы по коду страны")
+    @Operation(summary = "Получить страницу префиксов",
+            description = "Постраничная выборка по ID: следующая страница запрашивается с after = next")
+    @GetMapping("/page")
+    public PageDtoResponse<PrefixDtoResponse> getPage(
+            @Parameter(description = "ID последнего префикса предыдущей страницы")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(defaultValue = "100") int limit) {
+        return service.getPage(after, limit);
+    }
+
+    @Operation(summary = "Выгрузить все префиксы потоком",
+            description = "JSON-массив пишется по мере чтения из БД курсором")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = exportService::writePrefixes;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @Operation(summary = "Получить префиксы по коду страны",
+            description = "Поддерживает If-None-Match: при неизменных данных возвращает 304")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = PrefixDtoResponse.class))))
     @GetMapping("/country/{code}")
-    public List<PrefixDtoResponse> getByCountry(
-            @Parameter(description = "Код страны") @PathVariable String code) {
-        visitCounterService.increment();
-        return service.getByCountry(code);
+    public ResponseEntity<byte[]> getByCountry(
+            @Parameter(description = "Код страны") @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(versions.countryTag(code))) {
+            return null;
+        }
+        return responseCache.respond("country-prefixes:" + code, acceptEncoding,
+                () -> service.getByCountry(code), prefixes -> code);
+    }
+
+    @Operation(summary = "Определить страну и регион по номеру телефона",
+            description = "Поиск самого длинного совпадения телефонного кода страны и префикса")
+    @GetMapping("/resolve")
+    public ResolveDtoResponse resolve(
+            @Parameter(description = "Номер телефона") @RequestParam String number) {
+        return service.resolve(number);
+    }
+
+    @Operation(summary = "Определить страны и регионы для списка номеров",
+            description = "JSON-массив или NDJSON-поток номеров; результаты возвращаются потоком "
+                    + "в порядке входа, для нераспознанных номеров заполнено только поле number")
+    @PostMapping(value = "/resolve/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<StreamingResponseBody> resolveBatch(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        BatchResolveService.Format format = BatchResolveService.Format.fromContentType(contentType);
+        StreamingResponseBody response = out -> batchResolveService.resolveAll(body, out, format);
+        return ResponseEntity.ok()
+                .contentType(format == BatchResolveService.Format.NDJSON
+                        ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(response);
     }
 
     @Operation(summary = "Получить префикс по ID")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = PrefixDtoResponse.class)))
     @GetMapping("/{id}")
-    public PrefixDtoResponse getById(
-            @Parameter(description = "ID префикса") @PathVariable Long id) {
-        visitCounterService.increment();
-        return service.getById(id);
+    public ResponseEntity<byte[]> getById(
+            @Parameter(description = "ID префикса") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        return responseCache.respond("prefix:" + id, acceptEncoding,
+                () -> service.getById(id), PrefixDtoResponse::getCountryCode);
     }
 
     @Operation(summary = "Создать новый префикс")
@@ -61,17 +147,59 @@ public class PhoneNumberPrefixController {
     public PrefixDtoResponse save(
             @Parameter(description = "Данные нового префикса")
             @RequestBody @Valid PrefixDtoRequest request) {
-        visitCounterService.increment();
         return service.save(request);
     }
 
+    @Operation(summary = "Создать или обновить префикс",
+            description = "Идемпотентная запись по паре префикс и код страны одним запросом к БД: "
+                    + "201 и статус CREATED для нового префикса, 200 и UPDATED для существующего")
+    @PutMapping("/upsert")
+    public ResponseEntity<PrefixUpsertResponse> upsert(
+            @Parameter(description = "Данные префикса")
+            @RequestBody @Valid PrefixDtoRequest request) {
+        PrefixUpsertResponse result = service.upsert(request);
+        return ResponseEntity.status(result.getStatus() == PrefixUpsertResponse.Status.CREATED
+                ? HttpStatus.CREATED : HttpStatus.OK).body(result);
+    }
+
+    @Operation(summary = "Создать или обновить несколько префиксов",
+            description = "Все префиксы записываются одним запросом к БД; для каждого "
+                    + "возвращается статус CREATED или UPDATED")
+    @PutMapping("/upsert/batch")
+    public List<PrefixUpsertResponse> upsertAll(
+            @Parameter(description = "Список префиксов")
+            @Valid @RequestBody List<PrefixDtoRequest> requests) {
+        return service.upsertAll(requests);
+    }
+
+    @Operation(summary = "Импортировать префиксы из файла",
+            description = "Потоковый импорт CSV (prefix,regionName,countryCode) или NDJSON. "
+                    + "Дубликаты пропускаются, строки с ошибками отклоняются. "
+                    + "С Accept: application/x-ndjson после каждой пачки возвращается строка "
+                    + "с текущими счетчиками, последней строкой — итог")
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = PrefixImportResponse.class)))
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importPrefixes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            InputStream body) throws IOException {
+        PrefixImportService.Format format = PrefixImportService.Format.fromContentType(contentType);
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            StreamingResponseBody response = out -> importService.importPrefixes(body, format, out);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(response);
+        }
+        return ResponseEntity.ok(importService.importPrefixes(body, format));
+    }
+
     @Operation(summary = "Обновить префикс")
     @PutMapping("/{id}")
     public PrefixDtoResponse update(
             @Parameter(description = "ID префикса") @PathVariable Long id,
             @Parameter(description = "Обновленные данные префикса")
             @RequestBody @Valid PrefixDtoRequest request) {
-        visitCounterService.increment();
         return service.update(id, request);
     }
 
@@ -79,7 +207,6 @@ public class PhoneNumberPrefixController {
     @DeleteMapping("/{id}")
     public void delete(
             @Parameter(description = "ID префикса") @PathVariable Long id) {
-        visitCounterService.increment();
         service.delete(id);
     }
 }
@@ -1,8 +1,10 @@
 package com.phone.controller;
 
+import com.phone.dto.VisitRateResponse;
 import com.phone.service.VisitCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +26,21 @@ public class VisitCounterController {
         return ResponseEntity.ok(count);
     }
 
+    @Operation(summary = "Получить количество посещений по эндпоинтам",
+            description = "Ключ — HTTP-метод и шаблон пути")
+    @GetMapping("/by-endpoint")
+    public Map<String, Long> getCountsByEndpoint() {
+        return visitCounterService.getCountsByEndpoint();
+    }
+
+    @Operation(summary = "Получить частоту обращений",
+            description = "Скользящие средние за 1, 5 и 15 минут (запросов в секунду) "
+                    + "по каждому эндпоинту и суммарно (ключ \"*\")")
+    @GetMapping("/rates")
+    public Map<String, VisitRateResponse> getRates() {
+        return visitCounterService.getRates();
+    }
+
     @Operation(summary = "Обнулить количество посещений", description = "Обнуляет количество посещений")
     @PostMapping("/reset")
     public void reset() {
@@ -0,0 +1,19 @@
+package com.phone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkheadStatsResponse {
+    private boolean enabled;
+    private int permits;
+    private int active;
+    private int parked;
+    private int peakParked;
+    private long acquired;
+    private long rejected;
+    private LatencyStatsResponse wait;
+}
@@ -0,0 +1,21 @@
+package com.phone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConcurrencyLimitStatsResponse {
+    private boolean enabled;
+    private int limit;
+    private int minLimit;
+    private int maxLimit;
+    private int inFlight;
+    private long accepted;
+    private long rejected;
+    private long dropped;
+    private long shortLatencyMicros;
+    private long baselineLatencyMicros;
+}
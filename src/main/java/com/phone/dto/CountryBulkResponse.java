@@ -0,0 +1,16 @@
+package com.phone.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountryBulkResponse {
+    private List<CountryDtoResponse> items;
+    private int inserted;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
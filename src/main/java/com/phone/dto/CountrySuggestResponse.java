@@ -0,0 +1,14 @@
+package com.phone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountrySuggestResponse {
+    private String code;
+    private String name;
+    private String phoneCode;
+}
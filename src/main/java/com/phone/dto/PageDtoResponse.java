@@ -0,0 +1,23 @@
+package com.phone.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDtoResponse<T> {
+    private List<T> items;
+    private String next;
+
+    public static <T> PageDtoResponse<T> of(List<T> rows, int limit, Function<T, String> cursor) {
+        if (rows.size() <= limit) {
+            return new PageDtoResponse<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new PageDtoResponse<>(items, cursor.apply(items.get(limit - 1)));
+    }
+}
@@ -1,11 +1,15 @@
 package com.phone.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class PrefixDtoResponse {
     private Long id;
     private String prefix;
     private String regionName;
     private String countryCode;
-}
\ No newline at end of file
+}
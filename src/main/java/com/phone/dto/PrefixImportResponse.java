@@ -0,0 +1,15 @@
+package com.phone.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class PrefixImportResponse {
+    private long processed;
+    private long imported;
+    private long skipped;
+    private long rejected;
+    private long elapsedMillis;
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.phone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrefixUpsertResponse {
+    private Long id;
+    private String prefix;
+    private String regionName;
+    private String countryCode;
+    private Status status;
+
+    public enum Status {
+        CREATED,
+        UPDATED
+    }
+
+    public PrefixDtoResponse toDto() {
+        return new PrefixDtoResponse(id, prefix, regionName, countryCode);
+    }
+}
@@ -0,0 +1,14 @@
+package com.phone.dto;
+
+import lombok.Data;
+
+@Data
+public class ResolveDtoResponse {
+    private String number;
+    private String countryCode;
+    private String countryName;
+    private String phoneCode;
+    private Long prefixId;
+    private String prefix;
+    private String regionName;
+}
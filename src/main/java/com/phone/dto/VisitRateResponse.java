@@ -0,0 +1,15 @@
+package com.phone.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VisitRateResponse {
+    private long count;
+    private double oneMinuteRate;
+    private double fiveMinuteRate;
+    private double fifteenMinuteRate;
+}
@@ -0,0 +1,51 @@
+package com.phone.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies index changes made inside a transaction only once it commits, in order and
+ * under the owner's monitor; a rollback discards them. Outside a transaction a change
+ * is applied at once. Across transactions the callbacks follow commit order because
+ * {@code CacheInvalidator} holds its commit-order lock until each writer completes.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Object owner, Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(owner, List.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Runnable> pending = (List<Runnable>) TransactionSynchronizationManager.getResource(owner);
+        if (pending == null) {
+            List<Runnable> created = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(owner, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(owner, created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+                }
+            });
+            pending = created;
+        }
+        pending.add(change);
+    }
+
+    private static void apply(Object owner, List<Runnable> changes) {
+        synchronized (owner) {
+            changes.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.phone.index;
+
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Country code by code, name or phone code. Changes made inside a transaction are
+ * applied after it commits.
+ */
+@Slf4j
+@Component
+public class CountryLookupIndex {
+
+    private final CountryRepository repository;
+
+    private final Map<String, String> byCode = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<String>> byName = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<String>> byPhoneCode = new ConcurrentHashMap<>();
+    private final Map<String, Country> indexed = new HashMap<>();
+
+    public CountryLookupIndex(CountryRepository repository) {
+        this.repository = repository;
+    }
+
+    public synchronized void load() {
+        rebuild(repository.findAll());
+    }
+
+    public synchronized void rebuild(Collection<Country> countries) {
+        byCode.clear();
+        byName.clear();
+        byPhoneCode.clear();
+        indexed.clear();
+        for (Country country : countries) {
+            index(detached(country));
+        }
+        log.info("Country lookup index loaded: {} countries", indexed.size());
+    }
+
+    public Optional<String> find(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        String code = byCode.get(normalizeCode(value));
+        if (code != null) {
+            return Optional.of(code);
+        }
+        code = first(byName.get(foldName(value)));
+        if (code == null) {
+            code = first(byPhoneCode.get(value));
+        }
+        return Optional.ofNullable(code);
+    }
+
+    public void put(Country country) {
+        Country detached = detached(country);
+        AfterCommit.run(this, () -> index(detached));
+    }
+
+    public void remove(String code) {
+        AfterCommit.run(this, () -> unindex(code));
+    }
+
+    private void index(Country country) {
+        unindex(country.getCode());
+        indexed.put(country.getCode(), country);
+        byCode.put(normalizeCode(country.getCode()), country.getCode());
+        byName.computeIfAbsent(foldName(country.getName()), k -> new ConcurrentSkipListSet<>())
+                .add(country.getCode());
+        byPhoneCode.computeIfAbsent(country.getPhoneCode(), k -> new ConcurrentSkipListSet<>())
+                .add(country.getCode());
+    }
+
+    private void unindex(String code) {
+        Country previous = indexed.remove(code);
+        if (previous == null) {
+            return;
+        }
+        byCode.remove(normalizeCode(previous.getCode()));
+        removeFrom(byName, foldName(previous.getName()), code);
+        removeFrom(byPhoneCode, previous.getPhoneCode(), code);
+    }
+
+    private static Country detached(Country country) {
+        return new Country(country.getCode(), country.getName(), country.getPhoneCode(), null);
+    }
+
+    private static String first(NavigableSet<String> codes) {
+        return codes == null ? null : codes.ceiling("");
+    }
+
+    private static void removeFrom(Map<String, NavigableSet<String>> index, String key,
+                                   String code) {
+        NavigableSet<String> codes = index.get(key);
+        if (codes != null) {
+            codes.remove(code);
+            if (codes.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    static String normalizeCode(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    static String foldName(String name) {
+        return name.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,260 @@
+package com.phone.index;
+
+import com.phone.dto.CountrySuggestResponse;
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Type-ahead over country name, code and phone code. Every word of the name, the code
+ * and the phone code digits are keys in a sorted map, so a prefix query is one range
+ * scan; queries of three or more characters also match inside names through a trigram
+ * index. Text is NFKC-normalized and case-folded, so Cyrillic and Latin behave the same.
+ * Writers are serialized on the index monitor; readers never lock. Changes made inside
+ * a transaction are applied after it commits.
+ */
+@Slf4j
+@Component
+public class CountrySuggestIndex {
+
+    private static final int GRAM = 3;
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_NAME_PREFIX = 1;
+    private static final int RANK_WORD_PREFIX = 2;
+    private static final int RANK_CODE_PREFIX = 3;
+    private static final int RANK_INFIX = 4;
+
+    private final CountryRepository repository;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Set<String>> keys = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+
+    public CountrySuggestIndex(CountryRepository repository) {
+        this.repository = repository;
+    }
+
+    public synchronized void load() {
+        rebuild(repository.findAll());
+    }
+
+    public synchronized void rebuild(Collection<Country> countries) {
+        entries.clear();
+        keys.clear();
+        grams.clear();
+        for (Country country : countries) {
+            index(new Entry(country.getCode(), country.getName(), country.getPhoneCode()));
+        }
+        log.info("Country suggest index loaded: {} countries, {} keys, {} trigrams",
+                entries.size(), keys.size(), grams.size());
+    }
+
+    public void put(Country country) {
+        Entry entry = new Entry(country.getCode(), country.getName(), country.getPhoneCode());
+        AfterCommit.run(this, () -> index(entry));
+    }
+
+    public void remove(String code) {
+        AfterCommit.run(this, () -> unindex(code));
+    }
+
+    public List<CountrySuggestResponse> suggest(String query, int limit) {
+        String folded = fold(query == null ? "" : query.strip());
+        if (folded.startsWith("+")) {
+            folded = folded.substring(1);
+        }
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> ranks = new HashMap<>();
+        for (Set<String> codes : keys.subMap(folded, true, folded + Character.MAX_VALUE, true)
+                .values()) {
+            for (String code : codes) {
+                rank(ranks, code, folded);
+            }
+        }
+        if (folded.length() >= GRAM) {
+            for (String code : gramCandidates(folded)) {
+                rank(ranks, code, folded);
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>(ranks.size());
+        for (String code : ranks.keySet()) {
+            Entry entry = entries.get(code);
+            if (entry != null) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.<Entry>comparingInt(entry -> ranks.get(entry.code))
+                .thenComparingInt(entry -> entry.displayName.length())
+                .thenComparing(entry -> entry.code));
+        return matches.stream()
+                .limit(limit)
+                .map(Entry::toResponse)
+                .toList();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void index(Entry entry) {
+        unindex(entry.code);
+        entries.put(entry.code, entry);
+        for (String key : entry.keys()) {
+            keys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(entry.code);
+        }
+        for (String gram : grams(entry.name)) {
+            grams.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(entry.code);
+        }
+    }
+
+    private void unindex(String code) {
+        Entry previous = entries.remove(code);
+        if (previous == null) {
+            return;
+        }
+        for (String key : previous.keys()) {
+            removeFrom(keys, key, code);
+        }
+        for (String gram : grams(previous.name)) {
+            removeFrom(grams, gram, code);
+        }
+    }
+
+    private void rank(Map<String, Integer> ranks, String code, String query) {
+        Entry entry = entries.get(code);
+        if (entry == null) {
+            return;
+        }
+        int rank = entry.rank(query);
+        if (rank >= 0) {
+            ranks.merge(code, rank, Math::min);
+        }
+    }
+
+    private Set<String> gramCandidates(String query) {
+        Set<String> smallest = null;
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<String> codes = grams.get(gram);
+            if (codes == null) {
+                return Set.of();
+            }
+            postings.add(codes);
+            if (smallest == null || codes.size() < smallest.size()) {
+                smallest = codes;
+            }
+        }
+        Set<String> result = new LinkedHashSet<>();
+        if (smallest == null) {
+            return result;
+        }
+        for (String code : smallest) {
+            if (postings.stream().allMatch(codes -> codes.contains(code))) {
+                result.add(code);
+            }
+        }
+        return result;
+    }
+
+    private static void removeFrom(Map<String, Set<String>> index, String key, String code) {
+        Set<String> codes = index.get(key);
+        if (codes != null) {
+            codes.remove(code);
+            if (codes.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    static String fold(String value) {
+        return CountryLookupIndex.foldName(Normalizer.normalize(value, Normalizer.Form.NFKC))
+                .replace('ё', 'е');
+    }
+
+    private static String digits(String phoneCode) {
+        return phoneCode == null ? "" : phoneCode.replaceAll("\\D", "");
+    }
+
+    private static final class Entry {
+        final String code;
+        final String displayName;
+        final String phoneCode;
+        final String name;
+        final String foldedCode;
+        final String phoneDigits;
+        final String[] words;
+
+        Entry(String code, String name, String phoneCode) {
+            this.code = code;
+            this.displayName = name == null ? "" : name;
+            this.phoneCode = phoneCode;
+            this.name = fold(displayName);
+            this.foldedCode = fold(code);
+            this.phoneDigits = digits(phoneCode);
+            this.words = this.name.split("[^\\p{L}\\p{N}]+");
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new LinkedHashSet<>();
+            keys.add(name);
+            for (String word : words) {
+                if (!word.isEmpty()) {
+                    keys.add(word);
+                }
+            }
+            keys.add(foldedCode);
+            if (!phoneDigits.isEmpty()) {
+                keys.add(phoneDigits);
+            }
+            return keys;
+        }
+
+        int rank(String query) {
+            if (name.equals(query) || foldedCode.equals(query) || phoneDigits.equals(query)) {
+                return RANK_EXACT;
+            }
+            if (name.startsWith(query)) {
+                return RANK_NAME_PREFIX;
+            }
+            for (String word : words) {
+                if (word.startsWith(query)) {
+                    return RANK_WORD_PREFIX;
+                }
+            }
+            if (foldedCode.startsWith(query) || phoneDigits.startsWith(query)) {
+                return RANK_CODE_PREFIX;
+            }
+            return name.contains(query) ? RANK_INFIX : -1;
+        }
+
+        CountrySuggestResponse toResponse() {
+            return new CountrySuggestResponse(code, displayName, phoneCode);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of every country with its prefixes, ordered by code. Countries are kept
+ * as headers and prefixes in a {@link PackedPrefixTable}; the DTOs handed out are built
+ * per call and never shared between readers.
+ */
+public final class DatasetSnapshot {
+
+    public static final DatasetSnapshot EMPTY =
+            new DatasetSnapshot(new TreeMap<>(), PackedPrefixTable.EMPTY);
+
+    private final NavigableMap<String, CountryDtoResponse> countries;
+    private final PackedPrefixTable prefixes;
+
+    private volatile Map<String, List<String>> codesByName;
+
+    private DatasetSnapshot(NavigableMap<String, CountryDtoResponse> countries,
+                            PackedPrefixTable prefixes) {
+        this.countries = Collections.unmodifiableNavigableMap(new TreeMap<>(countries));
+        this.prefixes = prefixes;
+    }
+
+    public static DatasetSnapshot of(Collection<CountryDtoResponse> countries) {
+        Builder builder = EMPTY.toBuilder();
+        countries.forEach(builder::putCountry);
+        return builder.build();
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    public List<CountryDtoResponse> countries() {
+        return countries.values().stream().map(this::withPrefixes).toList();
+    }
+
+    public Optional<CountryDtoResponse> country(String code) {
+        return Optional.ofNullable(countries.get(code)).map(this::withPrefixes);
+    }
+
+    public List<CountryDtoResponse> countriesAfter(String after, int limit) {
+        Collection<CountryDtoResponse> tail = after == null
+                ? countries.values() : countries.tailMap(after, false).values();
+        return tail.stream().limit(limit).map(this::withPrefixes).toList();
+    }
+
+    public int countryCount() {
+        return countries.size();
+    }
+
+    public List<PrefixDtoResponse> prefixes() {
+        return prefixes.rows(0, prefixes.size());
+    }
+
+    public Optional<PrefixDtoResponse> prefix(long id) {
+        int row = prefixes.find(id);
+        return row < 0 ? Optional.empty() : Optional.of(prefixes.toDto(row));
+    }
+
+    public List<PrefixDtoResponse> prefixesAfter(long after, int limit) {
+        int from = prefixes.firstAfter(after);
+        return prefixes.rows(from, (int) Math.min(prefixes.size(), (long) from + limit));
+    }
+
+    public List<PrefixDtoResponse> prefixesOfCountry(String code) {
+        return prefixes.rowsOfCountry(code);
+    }
+
+    public List<PrefixDtoResponse> prefixesOfCountryName(String name) {
+        List<String> codes = nameIndex().getOrDefault(name, List.of());
+        if (codes.size() == 1) {
+            return prefixesOfCountry(codes.get(0));
+        }
+        List<PrefixDtoResponse> result = new ArrayList<>();
+        codes.forEach(code -> result.addAll(prefixesOfCountry(code)));
+        return result;
+    }
+
+    public boolean sameContent(DatasetSnapshot other) {
+        return countries().equals(other.countries());
+    }
+
+    public int prefixCount() {
+        return prefixes.size();
+    }
+
+    public long prefixFootprintBytes() {
+        return prefixes.footprintBytes();
+    }
+
+    private CountryDtoResponse withPrefixes(CountryDtoResponse header) {
+        CountryDtoResponse dto = new CountryDtoResponse();
+        dto.setCode(header.getCode());
+        dto.setName(header.getName());
+        dto.setPhoneCode(header.getPhoneCode());
+        dto.setPrefixes(prefixes.rowsOfCountry(header.getCode()));
+        return dto;
+    }
+
+    private Map<String, List<String>> nameIndex() {
+        Map<String, List<String>> index = codesByName;
+        if (index == null) {
+            Map<String, List<String>> built = new HashMap<>();
+            for (CountryDtoResponse country : countries.values()) {
+                built.computeIfAbsent(country.getName(), k -> new ArrayList<>())
+                        .add(country.getCode());
+            }
+            index = built;
+            codesByName = index;
+        }
+        return index;
+    }
+
+    /**
+     * Collects changes against a base snapshot and applies them to the prefix table in
+     * one pass on {@link #build()}.
+     */
+    public static final class Builder {
+        private final TreeMap<String, CountryDtoResponse> countries;
+        private final PackedPrefixTable base;
+        private final Map<Long, PrefixDtoResponse> upserts = new LinkedHashMap<>();
+        private final Set<Long> removed = new HashSet<>();
+        private final Set<String> droppedCountries = new HashSet<>();
+
+        private Builder(DatasetSnapshot snapshot) {
+            this.countries = new TreeMap<>(snapshot.countries);
+            this.base = snapshot.prefixes;
+        }
+
+        public Builder putCountry(CountryDtoResponse country) {
+            dropPrefixesOf(country.getCode());
+            countries.put(country.getCode(),
+                    header(country.getCode(), country.getName(), country.getPhoneCode()));
+            if (country.getPrefixes() != null) {
+                country.getPrefixes().forEach(this::putPrefix);
+            }
+            return this;
+        }
+
+        public Builder putCountry(String code, String name, String phoneCode) {
+            countries.put(code, header(code, name, phoneCode));
+            return this;
+        }
+
+        public Builder removeCountry(String code) {
+            countries.remove(code);
+            dropPrefixesOf(code);
+            return this;
+        }
+
+        public Builder putPrefix(PrefixDtoResponse prefix) {
+            if (!countries.containsKey(prefix.getCountryCode())) {
+                return this;
+            }
+            removed.remove(prefix.getId());
+            upserts.put(prefix.getId(), prefix);
+            return this;
+        }
+
+        public Builder removePrefix(Long id, String countryCode) {
+            upserts.remove(id);
+            removed.add(id);
+            return this;
+        }
+
+        public DatasetSnapshot build() {
+            boolean unchanged = upserts.isEmpty() && removed.isEmpty()
+                    && droppedCountries.isEmpty();
+            return new DatasetSnapshot(countries, unchanged ? base
+                    : base.with(upserts.values(), removed, droppedCountries));
+        }
+
+        private void dropPrefixesOf(String code) {
+            droppedCountries.add(code);
+            upserts.values().removeIf(prefix -> code.equals(prefix.getCountryCode()));
+        }
+
+        private static CountryDtoResponse header(String code, String name, String phoneCode) {
+            CountryDtoResponse header = new CountryDtoResponse();
+            header.setCode(code);
+            header.setName(name);
+            header.setPhoneCode(phoneCode);
+            return header;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.mapper.CountryMapper;
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.DatasetVersionRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the current {@link DatasetSnapshot}. Readers take the volatile reference and
+ * never lock. Changes made inside a transaction are collected and applied as one
+ * copy-on-write swap after commit; a rollback discards them. Bulk changes can be
+ * deferred: they queue up for at most the write delay and are applied together with the
+ * next change, so an import committing chunk by chunk does not copy the prefix table per
+ * chunk. Every swap schedules a write of the {@link SnapshotFile}, so a burst of changes
+ * costs one write.
+ * <p>
+ * The store also tracks the dataset version the snapshot is known to match. It is taken
+ * from the database on a full load and advances only while committed versions arrive
+ * without gaps. A gap means changes were missed or applied out of order, so it schedules
+ * a full reload; until then, and after a change without a version, the version is
+ * unknown, and an unknown version never matches the database on the next start.
+ */
+@Slf4j
+@Component
+public class DatasetSnapshotStore {
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    private final CountryRepository countryRepository;
+    private final PhoneNumberPrefixRepository prefixRepository;
+    private final DatasetVersionRepository versionRepository;
+    private final CountryMapper mapper;
+    private final SnapshotFile file;
+    private final boolean enabled;
+    private final long writeDelayMillis;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile DatasetSnapshot current;
+    private long version = UNKNOWN_VERSION;
+    private ScheduledFuture<?> pendingWrite;
+    private ScheduledFuture<?> pendingApply;
+    private final List<Pending> queued = new ArrayList<>();
+    private boolean reloadScheduled;
+
+    public DatasetSnapshotStore(CountryRepository countryRepository,
+                                PhoneNumberPrefixRepository prefixRepository,
+                                DatasetVersionRepository versionRepository,
+                                CountryMapper mapper,
+                                SnapshotFile file,
+                                @Value("${app.snapshot.enabled:true}") boolean enabled,
+                                @Value("${app.snapshot.write-delay:5s}") Duration writeDelay) {
+        this.countryRepository = countryRepository;
+        this.prefixRepository = prefixRepository;
+        this.versionRepository = versionRepository;
+        this.mapper = mapper;
+        this.file = file;
+        this.enabled = enabled;
+        this.writeDelayMillis = writeDelay.toMillis();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public Optional<DatasetSnapshot> current() {
+        return Optional.ofNullable(current);
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized DatasetSnapshot load() {
+        if (!enabled) {
+            return null;
+        }
+        long loadedVersion = versionRepository.current();
+        Map<String, List<PrefixDtoResponse>> prefixes = prefixRepository.findAllDtos().stream()
+                .collect(Collectors.groupingBy(PrefixDtoResponse::getCountryCode));
+        List<CountryDtoResponse> countries = new ArrayList<>();
+        for (Country country : countryRepository.findAll()) {
+            countries.add(mapper.toDto(country,
+                    prefixes.getOrDefault(country.getCode(), List.of())));
+        }
+        DatasetSnapshot loaded = DatasetSnapshot.of(countries);
+        replace(loaded, loadedVersion);
+        return loaded;
+    }
+
+    public synchronized void replace(DatasetSnapshot snapshot, long snapshotVersion) {
+        queued.clear();
+        current = snapshot;
+        version = snapshotVersion;
+        log.info("Dataset snapshot loaded: {} countries, {} prefixes, {} KB in prefix table,"
+                        + " version {}", snapshot.countryCount(), snapshot.prefixCount(),
+                snapshot.prefixFootprintBytes() / 1024, snapshotVersion);
+        scheduleWrite();
+    }
+
+    @PreDestroy
+    public void flush() {
+        writer.shutdownNow();
+        drain();
+        if (current != null && file.enabled()) {
+            writeFile();
+        }
+    }
+
+    /**
+     * Records that the changes of the current transaction are committed as
+     * {@code committedVersion}; values below 1 mean the version is not known.
+     */
+    public void committed(long committedVersion) {
+        if (!enabled) {
+            return;
+        }
+        Pending pending = pending();
+        if (pending == null) {
+            pending = new Pending();
+            pending.version = committedVersion;
+            apply(pending);
+        } else {
+            pending.version = committedVersion;
+        }
+    }
+
+    public void putCountry(Country country) {
+        String code = country.getCode();
+        String name = country.getName();
+        String phoneCode = country.getPhoneCode();
+        update(builder -> builder.putCountry(code, name, phoneCode));
+    }
+
+    public void replaceCountry(Country country) {
+        CountryDtoResponse dto = mapper.toDto(country);
+        update(builder -> builder.putCountry(dto));
+    }
+
+    public void removeCountry(String code) {
+        update(builder -> builder.removeCountry(code));
+    }
+
+    public void putPrefix(PrefixDtoResponse prefix) {
+        update(builder -> builder.putPrefix(prefix));
+    }
+
+    public void putPrefixes(List<PrefixDtoResponse> prefixes) {
+        update(builder -> prefixes.forEach(builder::putPrefix));
+    }
+
+    /**
+     * Like {@link #putPrefixes}, but applied within the write delay together with other
+     * deferred batches instead of right after commit.
+     */
+    public void putPrefixesDeferred(List<PrefixDtoResponse> prefixes) {
+        Pending pending = update(builder -> prefixes.forEach(builder::putPrefix));
+        if (pending != null) {
+            pending.deferred = true;
+        }
+    }
+
+    public void removePrefix(Long id, String countryCode) {
+        update(builder -> builder.removePrefix(id, countryCode));
+    }
+
+    private Pending update(Consumer<DatasetSnapshot.Builder> change) {
+        if (!enabled) {
+            return null;
+        }
+        Pending pending = pending();
+        if (pending == null) {
+            pending = new Pending();
+            pending.changes.add(change);
+            apply(pending);
+            return null;
+        }
+        pending.changes.add(change);
+        return pending;
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DatasetSnapshotStore.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private synchronized void apply(Pending pending) {
+        if (current == null) {
+            return;
+        }
+        queued.add(pending);
+        if (pending.deferred && !writer.isShutdown()) {
+            scheduleDrain();
+        } else {
+            drain();
+        }
+    }
+
+    private synchronized void scheduleDrain() {
+        if (pendingApply != null && !pendingApply.isDone()) {
+            return;
+        }
+        pendingApply = writer.schedule(this::drain, writeDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void drain() {
+        DatasetSnapshot base = current;
+        if (base == null || queued.isEmpty()) {
+            queued.clear();
+            return;
+        }
+        DatasetSnapshot.Builder builder = null;
+        for (Pending pending : queued) {
+            if (!pending.changes.isEmpty()) {
+                if (builder == null) {
+                    builder = base.toBuilder();
+                }
+                for (Consumer<DatasetSnapshot.Builder> change : pending.changes) {
+                    change.accept(builder);
+                }
+            }
+            advance(pending);
+        }
+        queued.clear();
+        if (builder != null) {
+            current = builder.build();
+        }
+        scheduleWrite();
+    }
+
+    private void advance(Pending pending) {
+        boolean known = pending.version > 0 && version != UNKNOWN_VERSION;
+        if (known && pending.version <= version + 1) {
+            version = Math.max(version, pending.version);
+        } else {
+            if (known) {
+                log.warn("Dataset version {} committed after {}, reloading snapshot",
+                        pending.version, version);
+                scheduleReload();
+            }
+            version = UNKNOWN_VERSION;
+        }
+    }
+
+    private void scheduleReload() {
+        if (reloadScheduled || writer.isShutdown()) {
+            return;
+        }
+        reloadScheduled = true;
+        writer.execute(() -> {
+            synchronized (this) {
+                reloadScheduled = false;
+            }
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.warn("Failed to reload dataset snapshot: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void writeFile() {
+        DatasetSnapshot snapshot;
+        long snapshotVersion;
+        synchronized (this) {
+            snapshot = current;
+            snapshotVersion = version;
+        }
+        file.write(snapshot, snapshotVersion);
+    }
+
+    private synchronized void scheduleWrite() {
+        if (!file.enabled() || writer.isShutdown()) {
+            return;
+        }
+        if (pendingWrite != null && pendingWrite.getDelay(TimeUnit.MILLISECONDS) > 0) {
+            return;
+        }
+        pendingWrite = writer.schedule(this::writeFile, writeDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Pending {
+        final List<Consumer<DatasetSnapshot.Builder>> changes = new ArrayList<>();
+        long version = UNKNOWN_VERSION;
+        boolean deferred;
+    }
+
+}
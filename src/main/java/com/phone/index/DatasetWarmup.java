@@ -0,0 +1,106 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import com.phone.repository.DatasetVersionRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the in-memory indexes and the dataset snapshot once all beans exist, before the
+ * web server starts accepting requests. The {@link SnapshotFile} header carries the
+ * dataset version it was written at; only when that equals the version in the database
+ * is the file decoded and used, otherwise everything is loaded from the database.
+ */
+@Slf4j
+@Component
+public class DatasetWarmup implements SmartInitializingSingleton {
+
+    private final DatasetSnapshotStore snapshots;
+    private final SnapshotFile file;
+    private final DatasetVersionRepository versionRepository;
+    private final PrefixResolver resolver;
+    private final CountryLookupIndex lookupIndex;
+    private final CountrySuggestIndex suggestIndex;
+
+    public DatasetWarmup(DatasetSnapshotStore snapshots,
+                         SnapshotFile file,
+                         DatasetVersionRepository versionRepository,
+                         PrefixResolver resolver,
+                         CountryLookupIndex lookupIndex,
+                         CountrySuggestIndex suggestIndex) {
+        this.snapshots = snapshots;
+        this.file = file;
+        this.versionRepository = versionRepository;
+        this.resolver = resolver;
+        this.lookupIndex = lookupIndex;
+        this.suggestIndex = suggestIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        warmUp();
+    }
+
+    void warmUp() {
+        OptionalLong fileVersion = snapshots.enabled() ? file.version() : OptionalLong.empty();
+        if (fileVersion.isEmpty()) {
+            loadFromDatabase();
+            return;
+        }
+
+        long version;
+        try {
+            version = versionRepository.current();
+        } catch (RuntimeException e) {
+            log.warn("Failed to read dataset version, serving snapshot file unverified: {}",
+                    e.getMessage());
+            version = DatasetSnapshotStore.UNKNOWN_VERSION;
+        }
+        if (version != DatasetSnapshotStore.UNKNOWN_VERSION
+                && version != fileVersion.getAsLong()) {
+            log.info("Snapshot file is at dataset version {}, database at {}; loading from the"
+                    + " database", fileVersion.getAsLong(), version);
+            loadFromDatabase();
+            return;
+        }
+
+        Optional<DatasetSnapshot> stored = file.read();
+        if (stored.isEmpty()) {
+            loadFromDatabase();
+            return;
+        }
+        rebuildIndexes(stored.get());
+        snapshots.replace(stored.get(), version);
+    }
+
+    private void loadFromDatabase() {
+        resolver.load();
+        lookupIndex.load();
+        suggestIndex.load();
+        snapshots.load();
+    }
+
+    private void rebuildIndexes(DatasetSnapshot snapshot) {
+        List<Country> countries = new ArrayList<>(snapshot.countryCount());
+        List<PhoneNumberPrefix> prefixes = new ArrayList<>(snapshot.prefixCount());
+        for (CountryDtoResponse dto : snapshot.countries()) {
+            Country country = new Country(dto.getCode(), dto.getName(), dto.getPhoneCode(), null);
+            countries.add(country);
+            for (PrefixDtoResponse prefix : dto.getPrefixes()) {
+                prefixes.add(new PhoneNumberPrefix(prefix.getId(), prefix.getPrefix(),
+                        prefix.getRegionName(), country));
+            }
+        }
+        resolver.rebuild(countries, prefixes);
+        lookupIndex.rebuild(countries);
+        suggestIndex.rebuild(countries);
+    }
+}
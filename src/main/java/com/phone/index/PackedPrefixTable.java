@@ -0,0 +1,327 @@
+package com.phone.index;
+
+import com.phone.dto.PrefixDtoResponse;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable prefix rows in parallel primitive arrays, ordered by id. A prefix of up to
+ * 15 digits is packed into one {@code long} (four bits per digit, length in the top
+ * nibble); anything else is kept as a string on the side. Region names and country codes
+ * are stored once in dictionaries and referenced by {@code int} ids.
+ *
+ * <p>Per row this costs 8 bytes of id, 8 of digits, 4 + 4 of dictionary ids and 4 for
+ * the by-country order: 28 bytes plus each distinct region name once. The same row held
+ * as a {@code PrefixDtoResponse} with its {@code Long} and three strings takes roughly
+ * 180–220 bytes on a 64-bit JVM with compressed oops. DTOs are created on demand.
+ */
+public final class PackedPrefixTable {
+
+    static final PackedPrefixTable EMPTY = of(List.of());
+
+    private static final long NOT_PACKED = -1L;
+    private static final int MAX_PACKED_DIGITS = 15;
+    private static final int BYTES_PER_ROW = 28;
+
+    private final long[] ids;
+    private final long[] digits;
+    private final int[] regions;
+    private final int[] countries;
+    private final String[] regionNames;
+    private final String[] countryCodes;
+    private final Map<String, Integer> countryIds;
+    private final Map<Integer, String> unpacked;
+    private final int[] byCountry;
+    private final int[] countryStart;
+
+    private PackedPrefixTable(Rows rows) {
+        int size = rows.size;
+        this.ids = trim(rows.ids, size);
+        this.digits = trim(rows.digits, size);
+        this.regions = trim(rows.regions, size);
+        this.countries = trim(rows.countries, size);
+        this.regionNames = rows.regionNames.toArray(String[]::new);
+        this.countryCodes = rows.countryCodes.toArray(String[]::new);
+        this.countryIds = Map.copyOf(rows.countryIds);
+        this.unpacked = Map.copyOf(rows.unpacked);
+
+        countryStart = new int[countryCodes.length + 1];
+        for (int row = 0; row < size; row++) {
+            countryStart[countries[row] + 1]++;
+        }
+        for (int i = 0; i < countryCodes.length; i++) {
+            countryStart[i + 1] += countryStart[i];
+        }
+        byCountry = new int[size];
+        int[] next = Arrays.copyOf(countryStart, countryCodes.length);
+        for (int row = 0; row < size; row++) {
+            byCountry[next[countries[row]]++] = row;
+        }
+    }
+
+    public static PackedPrefixTable of(Collection<PrefixDtoResponse> prefixes) {
+        Rows rows = new Rows(prefixes.size());
+        prefixes.stream()
+                .sorted(Comparator.comparing(PrefixDtoResponse::getId))
+                .forEach(rows::add);
+        return new PackedPrefixTable(rows);
+    }
+
+    /**
+     * Copy with {@code upserts} applied by id, and rows listed in {@code removedIds} or
+     * belonging to {@code removedCountries} dropped. Upserts win over removals. Kept rows
+     * are copied column by column with their dictionary ids; only upserted values are
+     * looked up in the dictionaries, which start as this table's.
+     */
+    public PackedPrefixTable with(Collection<PrefixDtoResponse> upserts, Set<Long> removedIds,
+                                  Set<String> removedCountries) {
+        PrefixDtoResponse[] incoming = upserts.stream()
+                .sorted(Comparator.comparing(PrefixDtoResponse::getId))
+                .toArray(PrefixDtoResponse[]::new);
+        long[] removed = removedIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        boolean[] droppedCountries = new boolean[countryCodes.length];
+        for (String code : removedCountries) {
+            Integer country = countryIds.get(code);
+            if (country != null) {
+                droppedCountries[country] = true;
+            }
+        }
+
+        Rows rows = new Rows(ids.length + incoming.length, regionNames, countryCodes);
+        int row = 0;
+        int next = 0;
+        int nextRemoved = 0;
+        while (row < ids.length || next < incoming.length) {
+            if (next < incoming.length
+                    && (row == ids.length || incoming[next].getId() <= ids[row])) {
+                if (row < ids.length && incoming[next].getId() == ids[row]) {
+                    row++;
+                }
+                rows.add(incoming[next++]);
+                continue;
+            }
+            long id = ids[row];
+            while (nextRemoved < removed.length && removed[nextRemoved] < id) {
+                nextRemoved++;
+            }
+            boolean dropped = nextRemoved < removed.length && removed[nextRemoved] == id;
+            if (!dropped && !droppedCountries[countries[row]]) {
+                rows.add(id, digits[row],
+                        digits[row] == NOT_PACKED ? unpacked.get(row) : null,
+                        regions[row], countries[row]);
+            }
+            row++;
+        }
+        return new PackedPrefixTable(rows);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int row) {
+        return ids[row];
+    }
+
+    public String prefix(int row) {
+        long packed = digits[row];
+        if (packed == NOT_PACKED) {
+            return unpacked.get(row);
+        }
+        int length = (int) (packed >>> 60);
+        char[] chars = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = (char) ('0' + (packed & 0xF));
+            packed >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    public String regionName(int row) {
+        return regionNames[regions[row]];
+    }
+
+    public String countryCode(int row) {
+        return countryCodes[countries[row]];
+    }
+
+    public PrefixDtoResponse toDto(int row) {
+        return new PrefixDtoResponse(ids[row], prefix(row), regionName(row), countryCode(row));
+    }
+
+    /**
+     * Row holding {@code id}, or {@code -1}.
+     */
+    public int find(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row < 0 ? -1 : row;
+    }
+
+    /**
+     * First row whose id is greater than {@code id}.
+     */
+    public int firstAfter(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row < 0 ? -row - 1 : row + 1;
+    }
+
+    public List<PrefixDtoResponse> rows(int from, int to) {
+        return new RowList(null, from, Math.min(to, ids.length));
+    }
+
+    public List<PrefixDtoResponse> rowsOfCountry(String code) {
+        Integer country = countryIds.get(code);
+        if (country == null) {
+            return List.of();
+        }
+        return new RowList(byCountry, countryStart[country], countryStart[country + 1]);
+    }
+
+    public int countOfCountry(String code) {
+        Integer country = countryIds.get(code);
+        return country == null ? 0 : countryStart[country + 1] - countryStart[country];
+    }
+
+    public long footprintBytes() {
+        long bytes = (long) ids.length * BYTES_PER_ROW + (long) countryStart.length * 4;
+        for (String name : regionNames) {
+            bytes += 40 + (name == null ? 0 : name.length() * 2L);
+        }
+        for (String code : countryCodes) {
+            bytes += 40 + code.length() * 2L;
+        }
+        return bytes + unpacked.size() * 64L;
+    }
+
+    private static long[] trim(long[] column, int size) {
+        return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    private static int[] trim(int[] column, int size) {
+        return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    static long pack(String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > MAX_PACKED_DIGITS) {
+            return NOT_PACKED;
+        }
+        long packed = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_PACKED;
+            }
+            packed = (packed << 4) | (c - '0');
+        }
+        return ((long) prefix.length() << 60) | packed;
+    }
+
+    /**
+     * Read-only view over a row range, optionally through an index array.
+     */
+    private final class RowList extends AbstractList<PrefixDtoResponse> implements RandomAccess {
+        private final int[] order;
+        private final int from;
+        private final int to;
+
+        RowList(int[] order, int from, int to) {
+            this.order = order;
+            this.from = from;
+            this.to = Math.max(from, to);
+        }
+
+        @Override
+        public PrefixDtoResponse get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int position = from + index;
+            return toDto(order == null ? position : order[position]);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * Growable column buffers with dictionary interning, used while building a table.
+     */
+    private static final class Rows {
+        long[] ids;
+        long[] digits;
+        int[] regions;
+        int[] countries;
+        int size;
+        final List<String> regionNames = new ArrayList<>();
+        final List<String> countryCodes = new ArrayList<>();
+        final Map<String, Integer> regionIds = new HashMap<>();
+        final Map<String, Integer> countryIds = new HashMap<>();
+        final Map<Integer, String> unpacked = new HashMap<>();
+
+        Rows(int capacity) {
+            ids = new long[capacity];
+            digits = new long[capacity];
+            regions = new int[capacity];
+            countries = new int[capacity];
+        }
+
+        Rows(int capacity, String[] regionNames, String[] countryCodes) {
+            this(capacity);
+            for (String name : regionNames) {
+                intern(name, regionIds, this.regionNames);
+            }
+            for (String code : countryCodes) {
+                intern(code, countryIds, this.countryCodes);
+            }
+        }
+
+        void add(PrefixDtoResponse prefix) {
+            long packed = pack(prefix.getPrefix());
+            add(prefix.getId(), packed, packed == NOT_PACKED ? prefix.getPrefix() : null,
+                    prefix.getRegionName(), prefix.getCountryCode());
+        }
+
+        void add(long id, long packed, String raw, String regionName, String countryCode) {
+            add(id, packed, raw, intern(regionName, regionIds, regionNames),
+                    intern(countryCode, countryIds, countryCodes));
+        }
+
+        void add(long id, long packed, String raw, int region, int country) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                digits = Arrays.copyOf(digits, capacity);
+                regions = Arrays.copyOf(regions, capacity);
+                countries = Arrays.copyOf(countries, capacity);
+            }
+            ids[size] = id;
+            digits[size] = packed;
+            if (packed == NOT_PACKED && raw != null) {
+                unpacked.put(size, raw);
+            }
+            regions[size] = region;
+            countries[size] = country;
+            size++;
+        }
+
+        private static int intern(String value, Map<String, Integer> ids, List<String> values) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.phone.index;
+
+import com.phone.dto.ResolveDtoResponse;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Longest-prefix-match over {@code Country.phoneCode + PhoneNumberPrefix.prefix}.
+ * Writers are serialized on the resolver monitor; readers walk the trie without locking.
+ * Changes made inside a transaction are applied after it commits. A full load reads the
+ * database under the same monitor, so a change committed meanwhile lands on top of the
+ * loaded state instead of being overwritten by it. Each prefix is held as its own
+ * {@code Match} with strings, independently of the packed {@link DatasetSnapshot}.
+ */
+@Slf4j
+@Component
+public class PrefixResolver {
+
+    private static final Match[] NO_MATCHES = new Match[0];
+
+    private final PhoneNumberPrefixRepository prefixRepository;
+    private final CountryRepository countryRepository;
+
+    private final Map<String, CountryEntry> countries = new HashMap<>();
+    private final Map<Long, Match> prefixes = new HashMap<>();
+    private volatile Node root = new Node();
+
+    public PrefixResolver(PhoneNumberPrefixRepository prefixRepository,
+                          CountryRepository countryRepository) {
+        this.prefixRepository = prefixRepository;
+        this.countryRepository = countryRepository;
+    }
+
+    public synchronized void load() {
+        rebuild(countryRepository.findAll(), prefixRepository.findAllWithCountry());
+    }
+
+    public synchronized void rebuild(Collection<Country> allCountries,
+                                     Collection<PhoneNumberPrefix> allPrefixes) {
+        countries.clear();
+        prefixes.clear();
+        Node fresh = new Node();
+        for (Country country : allCountries) {
+            putCountry(fresh, country);
+        }
+        for (PhoneNumberPrefix prefix : allPrefixes) {
+            putPrefix(fresh, prefix);
+        }
+        root = fresh;
+        log.info("Prefix resolver loaded: {} countries, {} prefixes",
+                countries.size(), prefixes.size());
+    }
+
+    public Optional<ResolveDtoResponse> resolve(String number) {
+        String digits = normalize(number);
+        Node node = root;
+        Match best = null;
+        for (int i = 0; i < digits.length(); i++) {
+            node = node.children.get(digits.charAt(i) - '0');
+            if (node == null) {
+                break;
+            }
+            Match match = preferred(node.matches);
+            if (match != null) {
+                best = match;
+            }
+        }
+        return best == null ? Optional.empty() : Optional.of(best.toDto(digits));
+    }
+
+    public void putCountry(Country country) {
+        Country detached = detached(country);
+        AfterCommit.run(this, () -> putCountry(root, detached));
+    }
+
+    public void removeCountry(String code) {
+        AfterCommit.run(this, () -> removeCountry(root, code));
+    }
+
+    public void putPrefix(PhoneNumberPrefix prefix) {
+        Country country = prefix.getCountry();
+        if (prefix.getId() == null || country == null) {
+            return;
+        }
+        PhoneNumberPrefix detached = new PhoneNumberPrefix(prefix.getId(), prefix.getPrefix(),
+                prefix.getRegionName(), detached(country));
+        AfterCommit.run(this, () -> putPrefix(root, detached));
+    }
+
+    /**
+     * Same as {@link #putPrefix(PhoneNumberPrefix)} for a row that is not an entity; the
+     * country must already be in the resolver.
+     */
+    public void putPrefix(Long id, String prefix, String regionName, String countryCode) {
+        AfterCommit.run(this, () -> putPrefix(root, id, prefix, regionName, countryCode));
+    }
+
+    public void removePrefix(Long id) {
+        AfterCommit.run(this, () -> removePrefix(root, id));
+    }
+
+    public synchronized int size() {
+        return prefixes.size();
+    }
+
+    private void removeCountry(Node trie, String code) {
+        CountryEntry entry = countries.remove(code);
+        if (entry == null) {
+            return;
+        }
+        detach(trie, entry.match);
+        for (Long id : entry.prefixIds) {
+            detach(trie, prefixes.remove(id));
+        }
+    }
+
+    private void removePrefix(Node trie, Long id) {
+        Match match = prefixes.remove(id);
+        if (match == null) {
+            return;
+        }
+        CountryEntry entry = countries.get(match.countryCode);
+        if (entry != null) {
+            entry.prefixIds.remove(id);
+        }
+        detach(trie, match);
+    }
+
+    private void putCountry(Node trie, Country country) {
+        CountryEntry previous = countries.get(country.getCode());
+        if (previous != null) {
+            detach(trie, previous.match);
+            for (Long id : previous.prefixIds) {
+                detach(trie, prefixes.get(id));
+            }
+        }
+
+        CountryEntry entry = new CountryEntry(country.getCode(), country.getName(),
+                country.getPhoneCode());
+        countries.put(entry.code, entry);
+        attach(trie, entry.match);
+
+        if (previous != null) {
+            for (Long id : previous.prefixIds) {
+                Match moved = prefixes.get(id).withCountry(entry);
+                prefixes.put(id, moved);
+                entry.prefixIds.add(id);
+                attach(trie, moved);
+            }
+        }
+    }
+
+    private void putPrefix(Node trie, PhoneNumberPrefix prefix) {
+        Country country = prefix.getCountry();
+        if (prefix.getId() == null || country == null) {
+            return;
+        }
+        if (!countries.containsKey(country.getCode())) {
+            putCountry(trie, country);
+        }
+        putPrefix(trie, prefix.getId(), prefix.getPrefix(), prefix.getRegionName(),
+                country.getCode());
+    }
+
+    private void putPrefix(Node trie, Long id, String prefix, String regionName,
+                           String countryCode) {
+        CountryEntry entry = countries.get(countryCode);
+        if (entry == null) {
+            log.warn("Prefix {} skipped by resolver: unknown country '{}'", id, countryCode);
+            return;
+        }
+
+        Match previous = prefixes.remove(id);
+        if (previous != null) {
+            CountryEntry previousCountry = countries.get(previous.countryCode);
+            if (previousCountry != null) {
+                previousCountry.prefixIds.remove(id);
+            }
+            detach(trie, previous);
+        }
+
+        Match match = new Match(id, prefix, regionName, entry);
+        prefixes.put(match.prefixId, match);
+        entry.prefixIds.add(match.prefixId);
+        attach(trie, match);
+    }
+
+    private static Country detached(Country country) {
+        return new Country(country.getCode(), country.getName(), country.getPhoneCode(), null);
+    }
+
+    private static void attach(Node trie, Match match) {
+        Node node = trie;
+        for (int i = 0; i < match.key.length(); i++) {
+            int digit = match.key.charAt(i) - '0';
+            Node child = node.children.get(digit);
+            if (child == null) {
+                child = new Node();
+                node.children.set(digit, child);
+            }
+            node = child;
+        }
+        Match[] current = node.matches;
+        Match[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = match;
+        node.matches = updated;
+    }
+
+    private static void detach(Node trie, Match match) {
+        if (match == null) {
+            return;
+        }
+        Node node = trie;
+        for (int i = 0; i < match.key.length() && node != null; i++) {
+            node = node.children.get(match.key.charAt(i) - '0');
+        }
+        if (node == null) {
+            return;
+        }
+        Match[] current = node.matches;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == match) {
+                Match[] updated = new Match[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                node.matches = updated;
+                return;
+            }
+        }
+    }
+
+    private static Match preferred(Match[] matches) {
+        Match fallback = null;
+        for (Match match : matches) {
+            if (match.prefixId != null) {
+                return match;
+            }
+            if (fallback == null) {
+                fallback = match;
+            }
+        }
+        return fallback;
+    }
+
+    static String normalize(String number) {
+        if (number == null) {
+            throw new IllegalArgumentException("Номер не должен быть пустым");
+        }
+        StringBuilder digits = new StringBuilder(number.length());
+        for (int i = 0; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != '+' && c != '-' && c != ' ' && c != '(' && c != ')' && c != '.') {
+                throw new IllegalArgumentException("Некорректный номер: '" + number + "'");
+            }
+        }
+        if (digits.length() == 0) {
+            throw new IllegalArgumentException("Номер не должен быть пустым");
+        }
+        return digits.toString();
+    }
+
+    private static String digitsOf(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static final class Node {
+        final AtomicReferenceArray<Node> children = new AtomicReferenceArray<>(10);
+        volatile Match[] matches = NO_MATCHES;
+    }
+
+    private static final class CountryEntry {
+        final String code;
+        final String name;
+        final String phoneCode;
+        final Match match;
+        final Set<Long> prefixIds = new LinkedHashSet<>();
+
+        CountryEntry(String code, String name, String phoneCode) {
+            this.code = code;
+            this.name = name;
+            this.phoneCode = phoneCode;
+            this.match = new Match(null, null, null, this);
+        }
+    }
+
+    private static final class Match {
+        final Long prefixId;
+        final String prefix;
+        final String regionName;
+        final String countryCode;
+        final String countryName;
+        final String phoneCode;
+        final String key;
+
+        Match(Long prefixId, String prefix, String regionName, CountryEntry country) {
+            this.prefixId = prefixId;
+            this.prefix = prefix;
+            this.regionName = regionName;
+            this.countryCode = country.code;
+            this.countryName = country.name;
+            this.phoneCode = country.phoneCode;
+            this.key = digitsOf(country.phoneCode) + digitsOf(prefix);
+        }
+
+        Match withCountry(CountryEntry country) {
+            return new Match(prefixId, prefix, regionName, country);
+        }
+
+        ResolveDtoResponse toDto(String number) {
+            ResolveDtoResponse dto = new ResolveDtoResponse();
+            dto.setNumber(number);
+            dto.setCountryCode(countryCode);
+            dto.setCountryName(countryName);
+            dto.setPhoneCode(phoneCode);
+            dto.setPrefixId(prefixId);
+            dto.setPrefix(prefix);
+            dto.setRegionName(regionName);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binary copy of a {@link DatasetSnapshot} on local disk. Layout: magic, format version,
+ * the dataset version the snapshot reflects, country and prefix counts, then every
+ * country followed by its prefixes, and a CRC32 trailer. Strings are stored as a length
+ * and UTF-8 bytes, {@code -1} meaning null. The file is read through a memory mapping and
+ * decoded into an ordinary heap snapshot; it is replaced atomically on write.
+ */
+@Slf4j
+@Component
+public class SnapshotFile {
+
+    static final int MAGIC = 0x50485331;
+    static final int FORMAT = 2;
+
+    private static final int HEADER_BYTES = 24;
+    private static final int TRAILER_BYTES = 8;
+
+    private final Path path;
+
+    public SnapshotFile(@Value("${app.snapshot.file:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+    }
+
+    public boolean enabled() {
+        return path != null;
+    }
+
+    /**
+     * Dataset version from the file header, without reading the rest of the file. Empty
+     * when there is no file or it is in another format.
+     */
+    public OptionalLong version() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return OptionalLong.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES + TRAILER_BYTES) {
+                return OptionalLong.empty();
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(header.getLong());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable snapshot file {}: {}", path, e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    public Optional<DatasetSnapshot> read() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DatasetSnapshot snapshot = decode(buffer);
+            log.info("Dataset snapshot mapped from {}: {} countries, {} prefixes in {} ms", path,
+                    snapshot.countryCount(), snapshot.prefixCount(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return Optional.of(snapshot);
+        } catch (IOException | IllegalStateException | BufferUnderflowException e) {
+            log.warn("Ignoring unreadable snapshot file {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void write(DatasetSnapshot snapshot, long version) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                encode(snapshot, version, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Dataset snapshot written to {} at version {}", path, version);
+        } catch (IOException e) {
+            log.warn("Failed to write snapshot file {}: {}", path, e.getMessage());
+        }
+    }
+
+    static void encode(DatasetSnapshot snapshot, long version, OutputStream target)
+            throws IOException {
+        CRC32 crc = new CRC32();
+        BufferedOutputStream buffered = new BufferedOutputStream(target, 1 << 16);
+        DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(version);
+        out.writeInt(snapshot.countryCount());
+        out.writeInt(snapshot.prefixCount());
+        for (CountryDtoResponse country : snapshot.countries()) {
+            writeString(out, country.getCode());
+            writeString(out, country.getName());
+            writeString(out, country.getPhoneCode());
+            out.writeInt(country.getPrefixes().size());
+            for (PrefixDtoResponse prefix : country.getPrefixes()) {
+                out.writeLong(prefix.getId());
+                writeString(out, prefix.getPrefix());
+                writeString(out, prefix.getRegionName());
+            }
+        }
+        out.flush();
+        new DataOutputStream(buffered).writeLong(crc.getValue());
+        buffered.flush();
+    }
+
+    static DatasetSnapshot decode(ByteBuffer buffer) {
+        int size = buffer.limit();
+        if (size < HEADER_BYTES + TRAILER_BYTES) {
+            throw new IllegalStateException("file is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - TRAILER_BYTES));
+        if (crc.getValue() != buffer.getLong(size - TRAILER_BYTES)) {
+            throw new IllegalStateException("checksum mismatch");
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IllegalStateException("unsupported format");
+        }
+
+        buffer.getLong();
+        int countryCount = buffer.getInt();
+        buffer.getInt();
+        List<CountryDtoResponse> countries = new ArrayList<>(countryCount);
+        for (int i = 0; i < countryCount; i++) {
+            CountryDtoResponse country = new CountryDtoResponse();
+            country.setCode(readString(buffer));
+            country.setName(readString(buffer));
+            country.setPhoneCode(readString(buffer));
+            int prefixCount = buffer.getInt();
+            List<PrefixDtoResponse> prefixes = new ArrayList<>(prefixCount);
+            for (int j = 0; j < prefixCount; j++) {
+                prefixes.add(new PrefixDtoResponse(buffer.getLong(), readString(buffer),
+                        readString(buffer), country.getCode()));
+            }
+            country.setPrefixes(prefixes);
+            countries.add(country);
+        }
+        return DatasetSnapshot.of(countries);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,240 @@
+package com.phone.invalidation;
+
+import com.phone.cache.DatasetVersions;
+import com.phone.cache.PrefixCache;
+import com.phone.cache.ResponseByteCache;
+import com.phone.index.CountryLookupIndex;
+import com.phone.index.CountrySuggestIndex;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.DatasetVersionRepository;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Single entry point for "these prefixes/countries changed". Locally it bumps
+ * {@link DatasetVersions}; remotely it publishes one event per transaction after commit,
+ * however many rows the transaction touched. Each such transaction also bumps the
+ * dataset version row once and tells the snapshot store which version it committed as.
+ * Events from other nodes first refresh the in-memory indexes and dataset snapshot from
+ * the database and only then evict the prefix cache and bump the versions, so a read in
+ * between cannot cache the old row again under the new version.
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final InvalidationBus bus;
+    private final DatasetVersions versions;
+    private final PrefixCache cache;
+    private final ResponseByteCache responseCache;
+    private final PrefixResolver resolver;
+    private final CountryLookupIndex lookupIndex;
+    private final CountrySuggestIndex suggestIndex;
+    private final DatasetSnapshotStore snapshots;
+    private final CountryRepository countryRepository;
+    private final DatasetVersionRepository versionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPrefixIds;
+    private final ReentrantLock commitOrder = new ReentrantLock();
+
+    public CacheInvalidator(InvalidationBus bus,
+                            DatasetVersions versions,
+                            PrefixCache cache,
+                            ResponseByteCache responseCache,
+                            PrefixResolver resolver,
+                            CountryLookupIndex lookupIndex,
+                            CountrySuggestIndex suggestIndex,
+                            DatasetSnapshotStore snapshots,
+                            CountryRepository countryRepository,
+                            DatasetVersionRepository versionRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.invalidation.max-prefix-ids:500}") int maxPrefixIds) {
+        this.bus = bus;
+        this.versions = versions;
+        this.cache = cache;
+        this.responseCache = responseCache;
+        this.resolver = resolver;
+        this.lookupIndex = lookupIndex;
+        this.suggestIndex = suggestIndex;
+        this.snapshots = snapshots;
+        this.countryRepository = countryRepository;
+        this.versionRepository = versionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPrefixIds = maxPrefixIds;
+        bus.subscribe(this::onEvent);
+    }
+
+    public void changed(String countryCode) {
+        changed(List.of(), List.of(countryCode));
+    }
+
+    public void changed(Long prefixId, String countryCode) {
+        changed(prefixId == null ? List.of() : List.of(prefixId), List.of(countryCode));
+    }
+
+    public void changed(Collection<Long> prefixIds, Collection<String> countryCodes) {
+        versions.changed(countryCodes);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Batch batch = new Batch(commitVersion());
+            batch.add(prefixIds, countryCodes);
+            publish(batch);
+            return;
+        }
+
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            Batch created = new Batch(commitVersion());
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+                }
+            });
+            batch = created;
+        }
+        batch.add(prefixIds, countryCodes);
+    }
+
+    private long commitVersion() {
+        long version = versionRepository.bump();
+        holdCommitOrder();
+        snapshots.committed(version);
+        return version;
+    }
+
+    /**
+     * Index, snapshot and cache changes are applied in afterCommit callbacks, which run in
+     * any order across threads. Holding this lock from the version bump, or the start of a
+     * remote refresh, until the transaction completes makes them apply in commit order.
+     */
+    private void holdCommitOrder() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || commitOrder.isHeldByCurrentThread()) {
+            return;
+        }
+        commitOrder.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                commitOrder.unlock();
+            }
+        });
+    }
+
+    private void publish(Batch batch) {
+        if (batch.prefixIds.isEmpty() && batch.countryCodes.isEmpty()) {
+            return;
+        }
+        boolean allPrefixes = batch.prefixIds.size() > maxPrefixIds;
+        InvalidationEvent event = new InvalidationEvent(nodeId,
+                allPrefixes ? Set.of() : Set.copyOf(batch.prefixIds),
+                Set.copyOf(batch.countryCodes), allPrefixes, batch.version);
+        try {
+            bus.publish(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    void onEvent(InvalidationEvent event) {
+        if (nodeId.equals(event.nodeId())) {
+            return;
+        }
+        log.debug("Remote invalidation from {}: {} prefixes, countries {}{}", event.nodeId(),
+                event.prefixIds().size(), event.countryCodes(),
+                event.allPrefixes() ? " (all prefixes)" : "");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            holdCommitOrder();
+            refresh(event);
+        });
+
+        if (event.allPrefixes()) {
+            cache.clear();
+        } else {
+            event.prefixIds().forEach(cache::remove);
+        }
+        if (event.allPrefixes() && event.countryCodes().isEmpty()) {
+            versions.changedAll();
+            responseCache.clear();
+        } else {
+            versions.changed(event.countryCodes());
+        }
+    }
+
+    private void refresh(InvalidationEvent event) {
+        if (event.allPrefixes()) {
+            resolver.load();
+            lookupIndex.load();
+            suggestIndex.load();
+            snapshots.load();
+            return;
+        }
+        Set<Long> present = new HashSet<>();
+        for (String code : event.countryCodes()) {
+            Optional<Country> found = countryRepository.findWithPrefixesByCode(code);
+            if (found.isEmpty()) {
+                cache.removeCountry(code);
+                resolver.removeCountry(code);
+                lookupIndex.remove(code);
+                suggestIndex.remove(code);
+                snapshots.removeCountry(code);
+                continue;
+            }
+            Country country = found.get();
+            resolver.putCountry(country);
+            lookupIndex.put(country);
+            suggestIndex.put(country);
+            snapshots.replaceCountry(country);
+            for (PhoneNumberPrefix prefix : country.getPrefixes()) {
+                resolver.putPrefix(prefix);
+                present.add(prefix.getId());
+            }
+        }
+        for (Long id : event.prefixIds()) {
+            if (!present.contains(id)) {
+                resolver.removePrefix(id);
+            }
+        }
+        snapshots.committed(event.version());
+    }
+
+    private static final class Batch {
+        final Set<Long> prefixIds = new LinkedHashSet<>();
+        final Set<String> countryCodes = new LinkedHashSet<>();
+        final long version;
+
+        Batch(long version) {
+            this.version = version;
+        }
+
+        void add(Collection<Long> ids, Collection<String> codes) {
+            prefixIds.addAll(ids);
+            countryCodes.addAll(codes);
+        }
+    }
+}
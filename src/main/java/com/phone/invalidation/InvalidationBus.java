@@ -0,0 +1,10 @@
+package com.phone.invalidation;
+
+import java.util.function.Consumer;
+
+public interface InvalidationBus {
+
+    void publish(InvalidationEvent event);
+
+    void subscribe(Consumer<InvalidationEvent> listener);
+}
@@ -0,0 +1,12 @@
+package com.phone.invalidation;
+
+import java.util.Set;
+
+/**
+ * Data changed on node {@code nodeId}. When {@code allPrefixes} is set the prefix id list
+ * was too large to ship and receivers drop their whole prefix cache instead.
+ * {@code version} is the dataset version the change committed as, {@code 0} if unknown.
+ */
+public record InvalidationEvent(String nodeId, Set<Long> prefixIds, Set<String> countryCodes,
+                                boolean allPrefixes, long version) {
+}
@@ -0,0 +1,181 @@
+package com.phone.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts events with {@code pg_notify} and receives them on a dedicated connection
+ * outside the pool. Sends run on their own thread so they never reuse the connection of a
+ * transaction that has just committed. After a lost connection every node assumes it
+ * missed events and receives a synthetic "everything changed" event.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.invalidation.bus", havingValue = "postgres")
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_MILLIS = 10_000;
+    private static final long RECONNECT_MILLIS = 5_000;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final DataSourceProperties dataSource;
+    private final String channel;
+    private final List<Consumer<InvalidationEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+    private Thread receiver;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate,
+                                   ObjectMapper objectMapper,
+                                   DataSourceProperties dataSource,
+                                   @Value("${app.invalidation.channel:prefix_cache_invalidation}")
+                                   String channel) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.dataSource = dataSource;
+        if (channel == null || !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalidation channel must match "
+                    + CHANNEL_NAME.pattern() + ": " + channel);
+        }
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    public void start() {
+        receiver = new Thread(this::receive, "invalidation-listener");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        sender.shutdown();
+        if (receiver != null) {
+            receiver.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        String payload = encode(event);
+        sender.execute(() -> {
+            try {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish cache invalidation: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private String encode(InvalidationEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            if (payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD_BYTES) {
+                return payload;
+            }
+            return objectMapper.writeValueAsString(new InvalidationEvent(event.nodeId(),
+                    Set.of(), event.countryCodes(), true, event.version()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode invalidation event", e);
+        }
+    }
+
+    private void receive() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSource.determineUrl(),
+                    dataSource.determineUsername(), dataSource.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    log.info("Invalidation listener reconnected, dropping all cached data");
+                    dispatch(new InvalidationEvent(null, Set.of(), Set.of(), true, 0));
+                }
+                connectedBefore = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(decode(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection: {}", e.getMessage());
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private InvalidationEvent decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, InvalidationEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed invalidation payload: {}", payload);
+            return null;
+        }
+    }
+
+    private void dispatch(InvalidationEvent event) {
+        if (event == null) {
+            return;
+        }
+        for (Consumer<InvalidationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RECONNECT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
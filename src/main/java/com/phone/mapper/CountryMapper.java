@@ -33,6 +33,15 @@ public class CountryMapper {
         return dto;
     }
 
+    public CountryDtoResponse toDto(Country entity, List<PrefixDtoResponse> prefixes) {
+        CountryDtoResponse dto = new CountryDtoResponse();
+        dto.setCode(entity.getCode());
+        dto.setName(entity.getName());
+        dto.setPhoneCode(entity.getPhoneCode());
+        dto.setPrefixes(prefixes);
+        return dto;
+    }
+
     public Country toEntity(CountryDtoRequest dto) {
         return new Country(dto.getCode(), dto.getName(), dto.getPhoneCode(), null);
     }
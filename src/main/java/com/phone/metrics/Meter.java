@@ -0,0 +1,111 @@
+package com.phone.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Striped event counter with sliding-window 1/5/15 minute rates. Events are counted in a
+ * {@link LongAdder} and moved into a ring of 5 second buckets covering the last 15
+ * minutes by whichever thread first notices a tick is due; a rate is the sum of the
+ * window's completed buckets divided by its length.
+ */
+public class Meter {
+
+    private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    private static final int BUCKETS = (int) (TimeUnit.MINUTES.toNanos(15) / TICK_INTERVAL);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder uncounted = new LongAdder();
+    private final long[] buckets = new long[BUCKETS];
+    private final LongSupplier clock;
+    private final AtomicLong lastTick;
+    private int head;
+
+    public Meter() {
+        this(System::nanoTime);
+    }
+
+    Meter(LongSupplier clock) {
+        this.clock = clock;
+        this.lastTick = new AtomicLong(clock.getAsLong());
+    }
+
+    public void mark() {
+        tickIfNecessary();
+        count.increment();
+        uncounted.increment();
+    }
+
+    /**
+     * Adds events counted before this meter existed; the rates are not affected.
+     */
+    public void restore(long events) {
+        count.add(events);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double oneMinuteRate() {
+        return rate(1);
+    }
+
+    public double fiveMinuteRate() {
+        return rate(5);
+    }
+
+    public double fifteenMinuteRate() {
+        return rate(15);
+    }
+
+    public void reset() {
+        count.reset();
+        uncounted.reset();
+        synchronized (buckets) {
+            Arrays.fill(buckets, 0);
+        }
+    }
+
+    private double rate(int minutes) {
+        tickIfNecessary();
+        int window = (int) (TimeUnit.MINUTES.toNanos(minutes) / TICK_INTERVAL);
+        long events = 0;
+        synchronized (buckets) {
+            for (int i = 0; i < window; i++) {
+                events += buckets[Math.floorMod(head - i, BUCKETS)];
+            }
+        }
+        return events / (window * (TICK_INTERVAL / 1e9));
+    }
+
+    private void tickIfNecessary() {
+        long previous = lastTick.get();
+        long age = clock.getAsLong() - previous;
+        if (age < TICK_INTERVAL) {
+            return;
+        }
+        long ticks = age / TICK_INTERVAL;
+        if (lastTick.compareAndSet(previous, previous + ticks * TICK_INTERVAL)) {
+            long events = uncounted.sumThenReset();
+            synchronized (buckets) {
+                if (ticks > BUCKETS) {
+                    Arrays.fill(buckets, 0);
+                    return;
+                }
+                advance(events);
+                for (long i = 1; i < ticks; i++) {
+                    advance(0);
+                }
+            }
+        }
+    }
+
+    private void advance(long events) {
+        head = (head + 1) % BUCKETS;
+        buckets[head] = events;
+    }
+}
@@ -13,7 +13,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "countries")
+@Table(name = "countries",
+        indexes = @Index(name = "idx_countries_phone_code", columnList = "phone_code"))
 public class Country {
 
     @Id
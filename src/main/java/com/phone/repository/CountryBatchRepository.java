@@ -0,0 +1,20 @@
+package com.phone.repository;
+
+import com.phone.model.Country;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface CountryBatchRepository {
+
+    Set<String> findExistingCodes(Collection<String> codes);
+
+    int insertAll(List<Country> countries);
+
+    /**
+     * Deletes the country and all of its prefixes with one statement per table.
+     *
+     * @return number of deleted countries, 0 or 1
+     */
+    int deleteWithPrefixes(String code);
+}
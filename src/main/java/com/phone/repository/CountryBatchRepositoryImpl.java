@@ -0,0 +1,65 @@
+package com.phone.repository;
+
+import com.phone.model.Country;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class CountryBatchRepositoryImpl implements CountryBatchRepository {
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT code FROM countries WHERE code = ANY (?)";
+    private static final String INSERT_SQL =
+            "INSERT INTO countries (code, name, phone_code) VALUES (?, ?, ?)";
+    private static final String DELETE_PREFIXES_SQL =
+            "DELETE FROM prefixes WHERE country_code = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM countries WHERE code = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public CountryBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                      @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Set<String> findExistingCodes(Collection<String> codes) {
+        Set<String> existing = new HashSet<>();
+        if (codes.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_EXISTING_SQL);
+            Array array = connection.createArrayOf("varchar", codes.toArray());
+            statement.setArray(1, array);
+            return statement;
+        }, rs -> {
+            existing.add(rs.getString(1));
+        });
+        return existing;
+    }
+
+    @Override
+    public int insertAll(List<Country> countries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, countries, chunkSize, (statement, country) -> {
+            statement.setString(1, country.getCode());
+            statement.setString(2, country.getName());
+            statement.setString(3, country.getPhoneCode());
+        });
+        return countries.size();
+    }
+
+    @Override
+    public int deleteWithPrefixes(String code) {
+        jdbcTemplate.update(DELETE_PREFIXES_SQL, code);
+        return jdbcTemplate.update(DELETE_SQL, code);
+    }
+}
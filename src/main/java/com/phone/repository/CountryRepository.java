@@ -1,7 +1,36 @@
 package com.phone.repository;
 
 import com.phone.model.Country;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface CountryRepository extends JpaRepository<Country, String> {
+public interface CountryRepository extends JpaRepository<Country, String>,
+        CountryBatchRepository {
+
+    @Query("SELECT DISTINCT c FROM Country c LEFT JOIN FETCH c.prefixes ORDER BY c.code")
+    List<Country> findAllWithPrefixes();
+
+    @EntityGraph(attributePaths = "prefixes")
+    Optional<Country> findWithPrefixesByCode(String code);
+
+    @Query("SELECT c FROM Country c WHERE upper(c.code) = upper(:value) "
+            + "OR lower(c.name) = lower(:value) OR c.phoneCode = :value ORDER BY c.code")
+    List<Country> findByLookupValue(@Param("value") String value, Limit limit);
+
+    @Query("SELECT c FROM Country c WHERE c.code > :after ORDER BY c.code")
+    List<Country> findPageAfter(@Param("after") String after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c.code, c.name, c.phoneCode, p.id, p.prefix, p.regionName "
+            + "FROM Country c LEFT JOIN c.prefixes p ORDER BY c.code, p.id")
+    Stream<Object[]> streamCountryRows();
 }
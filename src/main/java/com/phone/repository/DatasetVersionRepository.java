@@ -0,0 +1,31 @@
+package com.phone.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Single-row counter in {@code dataset_version}, bumped once by every transaction that
+ * changes countries or prefixes. The row lock taken by the bump is held until commit, so
+ * versions follow commit order and the value returned is the transaction's own.
+ */
+@Repository
+public class DatasetVersionRepository {
+
+    private static final String SELECT_SQL = "SELECT version FROM dataset_version WHERE id = 1";
+    private static final String BUMP_SQL =
+            "UPDATE dataset_version SET version = version + 1 WHERE id = 1 RETURNING version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long current() {
+        return jdbcTemplate.queryForObject(SELECT_SQL, Long.class);
+    }
+
+    public long bump() {
+        return jdbcTemplate.queryForObject(BUMP_SQL, Long.class);
+    }
+}
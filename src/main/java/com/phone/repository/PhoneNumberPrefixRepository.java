@@ -1,12 +1,20 @@
 package com.phone.repository;
 
+import com.phone.dto.PrefixDtoResponse;
 import com.phone.model.PhoneNumberPrefix;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface PhoneNumberPrefixRepository extends JpaRepository<PhoneNumberPrefix, Long> {
+public interface PhoneNumberPrefixRepository extends JpaRepository<PhoneNumberPrefix, Long>,
+        PrefixBatchRepository {
 
     List<PhoneNumberPrefix> findByCountryCode(String countryCode);
 
@@ -14,4 +22,36 @@ public interface PhoneNumberPrefixRepository extends JpaRepository<PhoneNumberPr
     List<PhoneNumberPrefix> findByCountryName(@Param("name") String name);
 
     boolean existsByPrefixAndCountryCode(String prefix, String countryCode);
+
+    @Query("SELECT p FROM PhoneNumberPrefix p JOIN FETCH p.country")
+    List<PhoneNumberPrefix> findAllWithCountry();
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p ORDER BY p.id")
+    List<PrefixDtoResponse> findAllDtos();
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p WHERE p.country.code = :code ORDER BY p.id")
+    List<PrefixDtoResponse> findDtosByCountryCode(@Param("code") String countryCode);
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, c.code) "
+            + "FROM PhoneNumberPrefix p JOIN p.country c WHERE c.name = :name ORDER BY p.id")
+    List<PrefixDtoResponse> findDtosByCountryName(@Param("name") String name);
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p WHERE p.country.code IN :codes ORDER BY p.id")
+    List<PrefixDtoResponse> findDtosByCountryCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p WHERE p.id IN :ids")
+    List<PrefixDtoResponse> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p WHERE p.id > :after ORDER BY p.id")
+    List<PrefixDtoResponse> findDtosAfter(@Param("after") long after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.phone.dto.PrefixDtoResponse(p.id, p.prefix, p.regionName, p.country.code) "
+            + "FROM PhoneNumberPrefix p ORDER BY p.id")
+    Stream<PrefixDtoResponse> streamAllDtos();
 }
@@ -0,0 +1,24 @@
+package com.phone.repository;
+
+import com.phone.dto.PrefixDtoRequest;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixUpsertResponse;
+import java.util.Collection;
+import java.util.List;
+
+public interface PrefixBatchRepository {
+
+    /**
+     * Inserts every prefix whose (prefix, country) pair is not stored yet in a single
+     * statement and returns the inserted rows; pairs that already exist, or repeat within
+     * {@code prefixes}, are skipped.
+     */
+    List<PrefixDtoResponse> insertMissing(Collection<PrefixDtoRequest> prefixes);
+
+    /**
+     * Inserts every prefix, or updates the region of the row with the same prefix and
+     * country, in a single statement. Rows of unknown countries are skipped and missing
+     * from the result; the pairs in {@code prefixes} must be distinct.
+     */
+    List<PrefixUpsertResponse> upsertAll(Collection<PrefixDtoRequest> prefixes);
+}
@@ -0,0 +1,72 @@
+package com.phone.repository;
+
+import com.phone.dto.PrefixDtoRequest;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixUpsertResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class PrefixBatchRepositoryImpl implements PrefixBatchRepository {
+
+    private static final String INSERT_MISSING_SQL =
+            "INSERT INTO prefixes (prefix, region_name, country_code) "
+                    + "SELECT v.prefix, v.region_name, v.country_code "
+                    + "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) "
+                    + "AS v(prefix, region_name, country_code) "
+                    + "ON CONFLICT (prefix, country_code) DO NOTHING "
+                    + "RETURNING id, prefix, region_name, country_code";
+    private static final String UPSERT_SQL =
+            "INSERT INTO prefixes (prefix, region_name, country_code) "
+                    + "SELECT v.prefix, v.region_name, v.country_code "
+                    + "FROM unnest(?::varchar[], ?::varchar[], ?::varchar[]) "
+                    + "AS v(prefix, region_name, country_code) "
+                    + "WHERE EXISTS (SELECT 1 FROM countries c WHERE c.code = v.country_code) "
+                    + "ON CONFLICT (prefix, country_code) "
+                    + "DO UPDATE SET region_name = EXCLUDED.region_name "
+                    + "RETURNING id, prefix, region_name, country_code, (xmax = 0) AS created";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PrefixBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<PrefixDtoResponse> insertMissing(Collection<PrefixDtoRequest> prefixes) {
+        if (prefixes.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> arrays(connection, INSERT_MISSING_SQL, prefixes),
+                (rs, row) -> new PrefixDtoResponse(rs.getLong("id"), rs.getString("prefix"),
+                        rs.getString("region_name"), rs.getString("country_code")));
+    }
+
+    @Override
+    public List<PrefixUpsertResponse> upsertAll(Collection<PrefixDtoRequest> prefixes) {
+        if (prefixes.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> arrays(connection, UPSERT_SQL, prefixes),
+                (rs, row) -> new PrefixUpsertResponse(rs.getLong("id"), rs.getString("prefix"),
+                rs.getString("region_name"), rs.getString("country_code"),
+                rs.getBoolean("created") ? PrefixUpsertResponse.Status.CREATED
+                        : PrefixUpsertResponse.Status.UPDATED));
+    }
+
+    private static PreparedStatement arrays(Connection connection, String sql,
+                                            Collection<PrefixDtoRequest> prefixes)
+            throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setArray(1, connection.createArrayOf("varchar",
+                prefixes.stream().map(PrefixDtoRequest::getPrefix).toArray()));
+        statement.setArray(2, connection.createArrayOf("varchar",
+                prefixes.stream().map(PrefixDtoRequest::getRegionName).toArray()));
+        statement.setArray(3, connection.createArrayOf("varchar",
+                prefixes.stream().map(PrefixDtoRequest::getCountryCode).toArray()));
+        return statement;
+    }
+}
@@ -0,0 +1,45 @@
+package com.phone.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class VisitCounterRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO visit_counters (endpoint, visits) VALUES (?, ?) "
+                    + "ON CONFLICT (endpoint) "
+                    + "DO UPDATE SET visits = visit_counters.visits + EXCLUDED.visits";
+    private static final String SELECT_SQL = "SELECT endpoint, visits FROM visit_counters";
+    private static final String RESET_SQL = "DELETE FROM visit_counters";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VisitCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Long> findAll() {
+        Map<String, Long> totals = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            totals.put(rs.getString(1), rs.getLong(2));
+        });
+        return totals;
+    }
+
+    public void addAll(Map<String, Long> deltas) {
+        List<Map.Entry<String, Long>> rows = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(1, row.getKey());
+            statement.setLong(2, row.getValue());
+        });
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update(RESET_SQL);
+    }
+}
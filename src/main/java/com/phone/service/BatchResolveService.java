@@ -0,0 +1,205 @@
+package com.phone.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.phone.dto.ResolveDtoResponse;
+import com.phone.index.PrefixResolver;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves numbers in fixed-size chunks on a dedicated fork-join pool. While one chunk is
+ * being resolved the next one is read, and results are written in input order.
+ */
+@Slf4j
+@Service
+public class BatchResolveService {
+
+    public enum Format {
+        JSON, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("ndjson")) {
+                return NDJSON;
+            }
+            return JSON;
+        }
+    }
+
+    private final PrefixResolver resolver;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public BatchResolveService(PrefixResolver resolver,
+                               ObjectMapper objectMapper,
+                               @Value("${app.resolve.batch.parallelism:0}") int parallelism,
+                               @Value("${app.resolve.batch.chunk-size:8192}") int chunkSize) {
+        this.resolver = resolver;
+        this.objectMapper = objectMapper;
+        this.pool = new ForkJoinPool(parallelism > 0
+                ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    public void resolveAll(InputStream in, OutputStream out, Format format) throws IOException {
+        long started = System.nanoTime();
+        long total = 0;
+        ObjectWriter writer = objectMapper.writerFor(ResolveDtoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (NumberReader reader = format == Format.JSON
+                ? new JsonArrayReader(objectMapper.getFactory().createParser(in))
+                : new LineReader(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(null);
+            }
+            ForkJoinTask<ResolveDtoResponse[]> inFlight = null;
+            String[] chunk;
+            while ((chunk = reader.next(chunkSize)).length > 0) {
+                total += chunk.length;
+                ForkJoinTask<ResolveDtoResponse[]> submitted = submit(chunk);
+                if (inFlight != null) {
+                    write(generator, writer, inFlight.join(), format);
+                }
+                inFlight = submitted;
+            }
+            if (inFlight != null) {
+                write(generator, writer, inFlight.join(), format);
+            }
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        log.debug("Batch resolve: {} numbers in {} ms", total,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private ForkJoinTask<ResolveDtoResponse[]> submit(String[] chunk) {
+        return pool.submit(() -> Arrays.stream(chunk)
+                .parallel()
+                .map(this::resolveOne)
+                .toArray(ResolveDtoResponse[]::new));
+    }
+
+    private ResolveDtoResponse resolveOne(String number) {
+        try {
+            return resolver.resolve(number).orElseGet(() -> unresolved(number));
+        } catch (IllegalArgumentException e) {
+            return unresolved(number);
+        }
+    }
+
+    private static ResolveDtoResponse unresolved(String number) {
+        ResolveDtoResponse response = new ResolveDtoResponse();
+        response.setNumber(number);
+        return response;
+    }
+
+    private static void write(JsonGenerator generator, ObjectWriter writer,
+                              ResolveDtoResponse[] results, Format format) throws IOException {
+        for (ResolveDtoResponse result : results) {
+            writer.writeValue(generator, result);
+            if (format == Format.NDJSON) {
+                generator.writeRaw('\n');
+            }
+        }
+        generator.flush();
+    }
+
+    private interface NumberReader extends AutoCloseable {
+        String[] next(int max) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class JsonArrayReader implements NumberReader {
+        private final JsonParser parser;
+        private boolean finished;
+
+        JsonArrayReader(JsonParser parser) throws IOException {
+            this.parser = parser;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Ожидается JSON-массив номеров");
+            }
+        }
+
+        @Override
+        public String[] next(int max) throws IOException {
+            String[] chunk = new String[max];
+            int size = 0;
+            while (size < max && !finished) {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    finished = true;
+                } else if (token.isScalarValue()) {
+                    chunk[size++] = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                } else {
+                    parser.skipChildren();
+                    chunk[size++] = null;
+                }
+            }
+            return size == max ? chunk : Arrays.copyOf(chunk, size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    private static final class LineReader implements NumberReader {
+        private final BufferedReader reader;
+
+        LineReader(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String[] next(int max) throws IOException {
+            String[] chunk = new String[max];
+            int size = 0;
+            String line;
+            while (size < max && (line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.length() > 1 && line.startsWith("\"") && line.endsWith("\"")) {
+                    line = line.substring(1, line.length() - 1);
+                }
+                chunk[size++] = line;
+            }
+            return size == max ? chunk : Arrays.copyOf(chunk, size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
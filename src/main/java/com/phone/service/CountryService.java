@@ -1,33 +1,85 @@
 package com.phone.service;
 
 import com.phone.cache.PrefixCache;
+import com.phone.dto.CountryBulkResponse;
 import com.phone.dto.CountryDtoRequest;
 import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.CountrySuggestResponse;
+import com.phone.dto.PageDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
 import com.phone.exception.NotFoundException;
+import com.phone.index.CountryLookupIndex;
+import com.phone.index.CountrySuggestIndex;
+import com.phone.index.DatasetSnapshot;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
 import com.phone.mapper.CountryMapper;
 import com.phone.model.Country;
-import com.phone.model.PhoneNumberPrefix;
 import com.phone.repository.CountryRepository;
 import com.phone.repository.PhoneNumberPrefixRepository;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @Transactional
 @AllArgsConstructor
 public class CountryService {
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_SUGGESTIONS = 50;
 
     private final CountryRepository repository;
     private final CountryMapper mapper;
     private PhoneNumberPrefixRepository prefixRepository;
     private PrefixCache cache;
+    private PrefixResolver resolver;
+    private CountryLookupIndex lookupIndex;
+    private CacheInvalidator invalidator;
+    private DatasetSnapshotStore snapshots;
+    private CountrySuggestIndex suggestIndex;
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<CountryDtoResponse> getAll() {
-        return repository.findAll().stream()
-                .map(mapper::toDto)
+        return snapshots.current()
+                .map(DatasetSnapshot::countries)
+                .orElseGet(() -> repository.findAllWithPrefixes().stream()
+                        .map(mapper::toDto)
+                        .toList());
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public PageDtoResponse<CountryDtoResponse> getPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        Optional<DatasetSnapshot> snapshot = snapshots.current();
+        if (snapshot.isPresent()) {
+            return PageDtoResponse.of(snapshot.get().countriesAfter(after, limit + 1), limit,
+                    CountryDtoResponse::getCode);
+        }
+        List<Country> rows = repository.findPageAfter(after == null ? "" : after, Limit.of(limit + 1));
+        List<Country> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        Map<String, List<PrefixDtoResponse>> prefixes = page.isEmpty() ? Map.of()
+                : prefixRepository.findDtosByCountryCodeIn(page.stream().map(Country::getCode).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(PrefixDtoResponse::getCountryCode));
+
+        List<CountryDtoResponse> items = rows.stream()
+                .map(country -> mapper.toDto(country,
+                        prefixes.getOrDefault(country.getCode(), List.of())))
                 .toList();
+        return PageDtoResponse.of(items, limit, CountryDtoResponse::getCode);
     }
 
     public CountryDtoResponse save(CountryDtoRequest request) {
@@ -36,57 +88,119 @@ public class CountryService {
                     + request.getCode() + "' уже существует");
         }
         Country saved = repository.save(mapper.toEntity(request));
+        resolver.putCountry(saved);
+        lookupIndex.put(saved);
+        suggestIndex.put(saved);
+        snapshots.putCountry(saved);
+        invalidator.changed(saved.getCode());
         return mapper.toDto(saved);
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public CountryDtoResponse getByCode(String code) {
-        return repository.findById(code)
-                .map(mapper::toDto)
+        Optional<DatasetSnapshot> snapshot = snapshots.current();
+        return (snapshot.isPresent()
+                ? snapshot.get().country(code)
+                : repository.findWithPrefixesByCode(code).map(mapper::toDto))
                 .orElseThrow(() -> new NotFoundException("Country with code '"
                         + code + "' not found"));
     }
 
     public CountryDtoResponse update(String code, CountryDtoRequest request) {
-        return repository.findById(code)
+        return repository.findWithPrefixesByCode(code)
                 .map(existing -> {
                     existing.setName(request.getName());
                     existing.setPhoneCode(request.getPhoneCode());
-                    return mapper.toDto(repository.save(existing));
+                    Country saved = repository.save(existing);
+                    resolver.putCountry(saved);
+                    lookupIndex.put(saved);
+                    suggestIndex.put(saved);
+                    snapshots.putCountry(saved);
+                    invalidator.changed(saved.getCode());
+                    return mapper.toDto(saved);
                 })
                 .orElseThrow(() -> new NotFoundException("Country with code '"
                         + code + "' not found"));
     }
 
     public void delete(String code) {
-        List<PhoneNumberPrefix> prefixes = prefixRepository.findByCountryCode(code);
-        repository.deleteById(code);
-        for (PhoneNumberPrefix prefix : prefixes) {
-            cache.remove(prefix.getId());
+        if (repository.deleteWithPrefixes(code) == 0) {
+            return;
         }
+        cache.removeCountry(code);
+        resolver.removeCountry(code);
+        lookupIndex.remove(code);
+        suggestIndex.remove(code);
+        snapshots.removeCountry(code);
+        invalidator.changed(code);
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public CountryDtoResponse lookup(String value) {
-        return repository.findAll().stream()
-                .filter(c -> c.getCode().equalsIgnoreCase(value)
-                        || c.getName().equalsIgnoreCase(value)
-                        || c.getPhoneCode().equals(value))
+        Optional<DatasetSnapshot> snapshot = snapshots.current();
+        if (snapshot.isPresent()) {
+            return lookupIndex.find(value)
+                    .flatMap(snapshot.get()::country)
+                    .orElse(null);
+        }
+        return lookupIndex.find(value)
+                .flatMap(repository::findWithPrefixesByCode)
+                .or(() -> lookupInDatabase(value))
                 .map(mapper::toDto)
-                .findFirst()
                 .orElse(null);
     }
 
-    @Transactional
-    public List<CountryDtoResponse> saveAll(List<CountryDtoRequest> requests) {
-        return requests.stream()
-                .map(request -> {
-                    if (repository.existsById(request.getCode())) {
-                        throw new IllegalArgumentException(
-                                "Страна с кодом '" + request.getCode() + "' уже существует");
-                    }
-                    Country entity = mapper.toEntity(request);
-                    Country saved = repository.save(entity);
-                    return mapper.toDto(saved);
-                })
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public List<CountrySuggestResponse> suggest(String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Количество подсказок должно быть от 1 до "
+                    + MAX_SUGGESTIONS);
+        }
+        return suggestIndex.suggest(query, limit);
+    }
+
+    private Optional<Country> lookupInDatabase(String value) {
+        Optional<Country> found = repository.findByLookupValue(value, Limit.of(1))
+                .stream()
+                .findFirst();
+        found.ifPresent(lookupIndex::put);
+        return found;
+    }
+
+    public CountryBulkResponse saveAll(List<CountryDtoRequest> requests) {
+        long started = System.nanoTime();
+
+        Set<String> codes = new LinkedHashSet<>();
+        Set<String> duplicates = new LinkedHashSet<>();
+        for (CountryDtoRequest request : requests) {
+            if (!codes.add(request.getCode())) {
+                duplicates.add(request.getCode());
+            }
+        }
+        duplicates.addAll(repository.findExistingCodes(codes));
+        if (!duplicates.isEmpty()) {
+            throw new IllegalArgumentException("Страны с кодами " + duplicates + " уже существуют");
+        }
+
+        List<Country> entities = requests.stream()
+                .map(mapper::toEntity)
                 .toList();
+        int inserted = repository.insertAll(entities);
+
+        List<CountryDtoResponse> items = new ArrayList<>(entities.size());
+        for (Country entity : entities) {
+            resolver.putCountry(entity);
+            lookupIndex.put(entity);
+            suggestIndex.put(entity);
+            snapshots.putCountry(entity);
+            items.add(mapper.toDto(entity));
+        }
+        invalidator.changed(List.of(), codes);
+
+        long elapsedNanos = System.nanoTime() - started;
+        double rowsPerSecond = elapsedNanos > 0 ? inserted * 1_000_000_000.0 / elapsedNanos : 0;
+        log.info("Bulk country insert: {} rows in {} ms ({} rows/s)",
+                inserted, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new CountryBulkResponse(items, inserted, elapsedNanos / 1_000_000, rowsPerSecond);
     }
 }
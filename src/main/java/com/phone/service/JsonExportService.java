@@ -0,0 +1,92 @@
+package com.phone.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import jakarta.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@Transactional
+@AllArgsConstructor
+public class JsonExportService {
+
+    private final PhoneNumberPrefixRepository prefixRepository;
+    private final CountryRepository countryRepository;
+    private final ObjectMapper objectMapper;
+
+    public void writePrefixes(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<PrefixDtoResponse> rows = prefixRepository.streamAllDtos()) {
+            ObjectWriter writer = objectMapper.writerFor(PrefixDtoResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            generator.writeStartArray();
+            Iterator<PrefixDtoResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    public void writeCountries(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<Object[]> rows = countryRepository.streamCountryRows()) {
+            generator.writeStartArray();
+            String current = null;
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                String code = (String) row[0];
+                if (!Objects.equals(code, current)) {
+                    if (current != null) {
+                        endCountry(generator);
+                    }
+                    startCountry(generator, code, (String) row[1], (String) row[2]);
+                    current = code;
+                }
+                if (row[3] != null) {
+                    writePrefix(generator, (Long) row[3], (String) row[4], (String) row[5], code);
+                }
+            }
+            if (current != null) {
+                endCountry(generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void startCountry(JsonGenerator generator, String code, String name,
+                                     String phoneCode) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("code", code);
+        generator.writeStringField("name", name);
+        generator.writeStringField("phoneCode", phoneCode);
+        generator.writeArrayFieldStart("prefixes");
+    }
+
+    private static void endCountry(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writePrefix(JsonGenerator generator, Long id, String prefix,
+                                    String regionName, String countryCode) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("prefix", prefix);
+        generator.writeStringField("regionName", regionName);
+        generator.writeStringField("countryCode", countryCode);
+        generator.writeEndObject();
+    }
+}
@@ -1,31 +1,65 @@
 package com.phone.service;
 
 import com.phone.cache.PrefixCache;
+import com.phone.dto.PageDtoResponse;
 import com.phone.dto.PrefixDtoRequest;
 import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixUpsertResponse;
+import com.phone.dto.ResolveDtoResponse;
 import com.phone.exception.NotFoundException;
+import com.phone.index.DatasetSnapshot;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
 import com.phone.mapper.PrefixMapper;
+import com.phone.model.PhoneNumberPrefix;
 import com.phone.repository.PhoneNumberPrefixRepository;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
 @Transactional
 @AllArgsConstructor
 public class PhoneNumberPrefixService {
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final PhoneNumberPrefixRepository repository;
     private final PrefixMapper mapper;
     private final PrefixCache cache;
+    private final PrefixResolver resolver;
+    private final CacheInvalidator invalidator;
+    private final DatasetSnapshotStore snapshots;
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<PrefixDtoResponse> getAll() {
-        return repository.findAll()
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return snapshots.current()
+                .map(DatasetSnapshot::prefixes)
+                .orElseGet(repository::findAllDtos);
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public PageDtoResponse<PrefixDtoResponse> getPage(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        long from = after == null ? 0 : after;
+        List<PrefixDtoResponse> rows = snapshots.current()
+                .map(snapshot -> snapshot.prefixesAfter(from, limit + 1))
+                .orElseGet(() -> repository.findDtosAfter(from, Limit.of(limit + 1)));
+        return PageDtoResponse.of(rows, limit, dto -> String.valueOf(dto.getId()));
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public PrefixDtoResponse getById(Long id) {
         if (id == null || id < 0) {
             throw new IllegalArgumentException("Некорректный ID");
@@ -36,13 +70,13 @@ public class PhoneNumberPrefixService {
             return cached;
         }
 
-        return repository.findById(id)
-                .map(prefix -> {
-                    PrefixDtoResponse dto = mapper.toDto(prefix);
-                    cache.put(id, dto);
-                    return dto;
-                })
+        Optional<DatasetSnapshot> snapshot = snapshots.current();
+        PrefixDtoResponse dto = (snapshot.isPresent()
+                ? snapshot.get().prefix(id)
+                : repository.findById(id).map(mapper::toDto))
                 .orElseThrow(() -> new NotFoundException("Prefix with id '" + id + "' not found"));
+        cache.put(id, dto);
+        return dto;
     }
 
     public PrefixDtoResponse update(Long id, PrefixDtoRequest request) {
@@ -50,15 +84,23 @@ public class PhoneNumberPrefixService {
             throw new IllegalArgumentException("Некорректный ID");
         }
 
-        return repository.findById(id)
-                .map(existing -> {
-                    existing.setPrefix(request.getPrefix());
-                    existing.setRegionName(request.getRegionName());
-                    PrefixDtoResponse updated = mapper.toDto(repository.save(existing));
-                    cache.put(id, updated);
-                    return updated;
-                })
+        PhoneNumberPrefix existing = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Prefix with id '" + id + "' not found"));
+        existing.setPrefix(request.getPrefix());
+        existing.setRegionName(request.getRegionName());
+        PhoneNumberPrefix saved;
+        try {
+            saved = repository.saveAndFlush(existing);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Префикс '" + request.getPrefix()
+                    + "' уже существует для страны '" + existing.getCountry().getCode() + "'");
+        }
+        resolver.putPrefix(saved);
+        PrefixDtoResponse updated = mapper.toDto(saved);
+        cache.put(id, updated);
+        snapshots.putPrefix(updated);
+        invalidator.changed(id, updated.getCountryCode());
+        return updated;
     }
 
     public void delete(Long id) {
@@ -66,25 +108,27 @@ public class PhoneNumberPrefixService {
             throw new IllegalArgumentException("Некорректный ID");
         }
 
-        if (!repository.existsById(id)) {
-            throw new NotFoundException("Prefix with id '" + id + "' not found");
-        }
-        repository.deleteById(id);
+        PhoneNumberPrefix existing = repository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Prefix with id '" + id + "' not found"));
+        repository.delete(existing);
         cache.remove(id);
+        resolver.removePrefix(id);
+        snapshots.removePrefix(id, existing.getCountry().getCode());
+        invalidator.changed(id, existing.getCountry().getCode());
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<PrefixDtoResponse> getByCountry(String countryCode) {
-        return repository.findByCountryCode(countryCode)
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return snapshots.current()
+                .map(snapshot -> snapshot.prefixesOfCountry(countryCode))
+                .orElseGet(() -> repository.findDtosByCountryCode(countryCode));
     }
 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<PrefixDtoResponse> getByCountryName(String name) {
-        return repository.findByCountryName(name)
-                .stream()
-                .map(mapper::toDto)
-                .toList();
+        return snapshots.current()
+                .map(snapshot -> snapshot.prefixesOfCountryName(name))
+                .orElseGet(() -> repository.findDtosByCountryName(name));
     }
 
     public PrefixDtoResponse save(PrefixDtoRequest request) {
@@ -93,6 +137,76 @@ public class PhoneNumberPrefixService {
             throw new IllegalArgumentException("Префикс '" + request.getPrefix()
                     + "' уже существует для страны '" + request.getCountryCode() + "'");
         }
-        return mapper.toDto(repository.save(mapper.toEntity(request)));
+        PhoneNumberPrefix saved;
+        try {
+            saved = repository.save(mapper.toEntity(request));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Префикс '" + request.getPrefix()
+                    + "' уже существует для страны '" + request.getCountryCode() + "'");
+        }
+        resolver.putPrefix(saved);
+        PrefixDtoResponse dto = mapper.toDto(saved);
+        snapshots.putPrefix(dto);
+        invalidator.changed(dto.getId(), dto.getCountryCode());
+        return dto;
+    }
+
+    public PrefixUpsertResponse upsert(PrefixDtoRequest request) {
+        return upsertAll(List.of(request)).get(0);
+    }
+
+    /**
+     * Creates or updates every prefix by its (prefix, country) pair with one statement.
+     * A pair listed twice keeps the last region. Unknown countries fail the whole call.
+     */
+    public List<PrefixUpsertResponse> upsertAll(List<PrefixDtoRequest> requests) {
+        Map<String, PrefixDtoRequest> unique = new LinkedHashMap<>();
+        for (PrefixDtoRequest request : requests) {
+            unique.put(key(request.getPrefix(), request.getCountryCode()), request);
+        }
+        Map<String, PrefixUpsertResponse> rows = new LinkedHashMap<>();
+        for (PrefixUpsertResponse row : repository.upsertAll(unique.values())) {
+            rows.put(key(row.getPrefix(), row.getCountryCode()), row);
+        }
+        if (rows.size() < unique.size()) {
+            Set<String> missing = new TreeSet<>();
+            unique.forEach((key, request) -> {
+                if (!rows.containsKey(key)) {
+                    missing.add(request.getCountryCode());
+                }
+            });
+            throw new NotFoundException(missing.size() == 1
+                    ? "Country with code '" + missing.iterator().next() + "' not found"
+                    : "Countries with codes " + missing + " not found");
+        }
+
+        List<PrefixUpsertResponse> result = new ArrayList<>(rows.size());
+        List<PrefixDtoResponse> dtos = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (String key : unique.keySet()) {
+            PrefixUpsertResponse row = rows.get(key);
+            PrefixDtoResponse dto = row.toDto();
+            resolver.putPrefix(row.getId(), row.getPrefix(), row.getRegionName(),
+                    row.getCountryCode());
+            cache.put(row.getId(), dto);
+            result.add(row);
+            dtos.add(dto);
+            ids.add(row.getId());
+        }
+        snapshots.putPrefixes(dtos);
+        invalidator.changed(ids, dtos.stream().map(PrefixDtoResponse::getCountryCode)
+                .distinct().toList());
+        return result;
+    }
+
+    private static String key(String prefix, String countryCode) {
+        return prefix + '|' + countryCode;
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public ResolveDtoResponse resolve(String number) {
+        return resolver.resolve(number)
+                .orElseThrow(() -> new NotFoundException("No prefix matches number '"
+                        + number + "'"));
     }
 }
@@ -0,0 +1,319 @@
+package com.phone.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phone.dto.PrefixDtoRequest;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixImportResponse;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class PrefixImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("csv")) {
+                return CSV;
+            }
+            return NDJSON;
+        }
+    }
+
+    private final PhoneNumberPrefixRepository prefixRepository;
+    private final CountryRepository countryRepository;
+    private final PrefixResolver resolver;
+    private final CacheInvalidator invalidator;
+    private final DatasetSnapshotStore snapshots;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public PrefixImportService(PhoneNumberPrefixRepository prefixRepository,
+                               CountryRepository countryRepository,
+                               PrefixResolver resolver,
+                               CacheInvalidator invalidator,
+                               DatasetSnapshotStore snapshots,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               Validator validator,
+                               @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.prefixRepository = prefixRepository;
+        this.countryRepository = countryRepository;
+        this.resolver = resolver;
+        this.invalidator = invalidator;
+        this.snapshots = snapshots;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Called after each committed chunk with the counters so far.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onChunk(PrefixImportResponse progress) throws IOException;
+    }
+
+    public PrefixImportResponse importPrefixes(InputStream body, Format format) throws IOException {
+        return importPrefixes(body, format, progress -> {
+        });
+    }
+
+    /**
+     * Writes the counters as one NDJSON line after each chunk and the final result as the
+     * last line.
+     */
+    public void importPrefixes(InputStream body, Format format, OutputStream out)
+            throws IOException {
+        PrefixImportResponse result = importPrefixes(body, format,
+                progress -> writeLine(progress, out));
+        writeLine(result, out);
+    }
+
+    public PrefixImportResponse importPrefixes(InputStream body, Format format,
+                                               ProgressListener listener) throws IOException {
+        ImportRun run = new ImportRun();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            int[] columns = {0, 1, 2};
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && lineNumber == 1 && isHeader(line)) {
+                    columns = headerColumns(line);
+                    continue;
+                }
+
+                run.result.setProcessed(run.result.getProcessed() + 1);
+                PrefixDtoRequest row;
+                try {
+                    row = format == Format.CSV ? parseCsv(line, columns) : parseJson(line);
+                } catch (IllegalArgumentException | JsonProcessingException e) {
+                    run.reject(lineNumber, "некорректная строка");
+                    continue;
+                }
+
+                Set<ConstraintViolation<PrefixDtoRequest>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    run.reject(lineNumber, violations.iterator().next().getMessage());
+                    continue;
+                }
+
+                run.pending.add(new PendingRow(lineNumber, row));
+                if (run.pending.size() >= chunkSize) {
+                    flush(run, listener);
+                }
+            }
+        }
+        flush(run, listener);
+
+        run.result.setElapsedMillis(run.elapsedMillis());
+        log.info("Prefix import finished: {} rows processed, {} imported, {} skipped, {} rejected"
+                        + " in {} ms", run.result.getProcessed(), run.result.getImported(),
+                run.result.getSkipped(), run.result.getRejected(), run.result.getElapsedMillis());
+        return run.result;
+    }
+
+    private void flush(ImportRun run, ProgressListener listener) throws IOException {
+        if (run.pending.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<PrefixDtoResponse> inserted = writeChunk(run);
+            if (inserted.isEmpty()) {
+                return;
+            }
+            inserted.forEach(prefix -> resolver.putPrefix(prefix.getId(), prefix.getPrefix(),
+                    prefix.getRegionName(), prefix.getCountryCode()));
+            snapshots.putPrefixesDeferred(inserted);
+            invalidator.changed(
+                    inserted.stream().map(PrefixDtoResponse::getId).toList(),
+                    inserted.stream().map(PrefixDtoResponse::getCountryCode)
+                            .collect(Collectors.toSet()));
+        });
+        run.pending.clear();
+        log.info("Prefix import progress: {} rows processed, {} imported, {} skipped, {} rejected",
+                run.result.getProcessed(), run.result.getImported(),
+                run.result.getSkipped(), run.result.getRejected());
+        listener.onChunk(run.progress());
+    }
+
+    private List<PrefixDtoResponse> writeChunk(ImportRun run) {
+        Set<String> unknownCodes = new HashSet<>();
+        for (PendingRow row : run.pending) {
+            String code = row.request.getCountryCode();
+            if (!run.countries.containsKey(code)) {
+                unknownCodes.add(code);
+            }
+        }
+        if (!unknownCodes.isEmpty()) {
+            Set<String> found = new HashSet<>();
+            for (Country country : countryRepository.findAllById(unknownCodes)) {
+                found.add(country.getCode());
+            }
+            for (String code : unknownCodes) {
+                run.countries.put(code, found.contains(code));
+            }
+        }
+
+        List<PrefixDtoRequest> batch = new ArrayList<>(run.pending.size());
+        for (PendingRow row : run.pending) {
+            PrefixDtoRequest request = row.request;
+            if (!run.countries.get(request.getCountryCode())) {
+                run.reject(row.lineNumber, "Страна с кодом '" + request.getCountryCode()
+                        + "' не найдена");
+                continue;
+            }
+            batch.add(request);
+        }
+
+        List<PrefixDtoResponse> inserted = prefixRepository.insertMissing(batch);
+        run.result.setImported(run.result.getImported() + inserted.size());
+        run.result.setSkipped(run.result.getSkipped() + batch.size() - inserted.size());
+        return inserted;
+    }
+
+    private void writeLine(PrefixImportResponse response, OutputStream out) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(response));
+        out.write('\n');
+        out.flush();
+    }
+
+    private PrefixDtoRequest parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, PrefixDtoRequest.class);
+    }
+
+    private static PrefixDtoRequest parseCsv(String line, int[] columns) {
+        List<String> fields = splitCsv(line);
+        PrefixDtoRequest request = new PrefixDtoRequest();
+        request.setPrefix(field(fields, columns[0]));
+        request.setRegionName(field(fields, columns[1]));
+        request.setCountryCode(field(fields, columns[2]));
+        return request;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static boolean isHeader(String line) {
+        return splitCsv(line).stream()
+                .anyMatch(field -> field.equalsIgnoreCase("prefix"));
+    }
+
+    private static int[] headerColumns(String line) {
+        int[] columns = {0, 1, 2};
+        List<String> fields = splitCsv(line);
+        for (int i = 0; i < fields.size(); i++) {
+            String name = fields.get(i).toLowerCase(Locale.ROOT).replace("_", "");
+            switch (name) {
+                case "prefix" -> columns[0] = i;
+                case "regionname", "region" -> columns[1] = i;
+                case "countrycode", "country" -> columns[2] = i;
+                default -> {
+                }
+            }
+        }
+        return columns;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record PendingRow(long lineNumber, PrefixDtoRequest request) {
+    }
+
+    private static final class ImportRun {
+        final long started = System.nanoTime();
+        final PrefixImportResponse result = new PrefixImportResponse();
+        final Map<String, Boolean> countries = new HashMap<>();
+        final List<PendingRow> pending = new ArrayList<>();
+
+        PrefixImportResponse progress() {
+            PrefixImportResponse progress = new PrefixImportResponse();
+            progress.setProcessed(result.getProcessed());
+            progress.setImported(result.getImported());
+            progress.setSkipped(result.getSkipped());
+            progress.setRejected(result.getRejected());
+            progress.setElapsedMillis(elapsedMillis());
+            return progress;
+        }
+
+        long elapsedMillis() {
+            return (System.nanoTime() - started) / 1_000_000;
+        }
+
+        void reject(long lineNumber, String reason) {
+            result.setRejected(result.getRejected() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add("Строка " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
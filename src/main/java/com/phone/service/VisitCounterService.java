@@ -1,22 +1,116 @@
 package com.phone.service;
 
+import com.phone.dto.VisitRateResponse;
+import com.phone.metrics.Meter;
+import com.phone.repository.VisitCounterRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Visit counts per endpoint. Requests only touch in-memory counters; the increments
+ * since the last flush are written to {@code visit_counters} as one batch of upserts on
+ * a schedule and at shutdown, and the stored totals are added back on startup. A failed
+ * flush keeps its deltas for the next attempt.
+ */
+@Slf4j
 @Service
 public class VisitCounterService {
 
-    private final AtomicLong counter = new AtomicLong(0);
+    public static final String TOTAL = "*";
 
-    public void increment() {
-        counter.incrementAndGet();
+    private final VisitCounterRepository repository;
+    private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> unflushed = new ConcurrentHashMap<>();
+
+    public VisitCounterService(VisitCounterRepository repository) {
+        this.repository = repository;
+    }
+
+    public void increment(String endpoint) {
+        meters.computeIfAbsent(endpoint, k -> new Meter()).mark();
+        unflushed.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
     }
 
     public Long getCounter() {
-        return counter.get();
+        long total = 0;
+        for (Meter meter : meters.values()) {
+            total += meter.count();
+        }
+        return total;
+    }
+
+    public Map<String, Long> getCountsByEndpoint() {
+        Map<String, Long> counts = new TreeMap<>();
+        meters.forEach((endpoint, meter) -> counts.put(endpoint, meter.count()));
+        return counts;
+    }
+
+    public Map<String, VisitRateResponse> getRates() {
+        Map<String, VisitRateResponse> rates = new TreeMap<>();
+        VisitRateResponse total = new VisitRateResponse();
+        meters.forEach((endpoint, meter) -> {
+            VisitRateResponse rate = new VisitRateResponse(meter.count(), meter.oneMinuteRate(),
+                    meter.fiveMinuteRate(), meter.fifteenMinuteRate());
+            rates.put(endpoint, rate);
+            total.setCount(total.getCount() + rate.getCount());
+            total.setOneMinuteRate(total.getOneMinuteRate() + rate.getOneMinuteRate());
+            total.setFiveMinuteRate(total.getFiveMinuteRate() + rate.getFiveMinuteRate());
+            total.setFifteenMinuteRate(total.getFifteenMinuteRate() + rate.getFifteenMinuteRate());
+        });
+        rates.put(TOTAL, total);
+        return rates;
+    }
+
+    public synchronized void reset() {
+        unflushed.values().forEach(LongAdder::reset);
+        meters.values().forEach(Meter::reset);
+        repository.deleteAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        Map<String, Long> totals;
+        try {
+            totals = repository.findAll();
+        } catch (RuntimeException e) {
+            log.warn("Failed to restore visit counters: {}", e.getMessage());
+            return;
+        }
+        totals.forEach((endpoint, visits) ->
+                meters.computeIfAbsent(endpoint, k -> new Meter()).restore(visits));
+        log.info("Visit counters restored: {} endpoints, {} visits", totals.size(),
+                totals.values().stream().mapToLong(Long::longValue).sum());
     }
 
-    public void reset() {
-        counter.set(0);
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.visits.flush-interval:10s}",
+            initialDelayString = "${app.visits.flush-interval:10s}")
+    public synchronized void flush() {
+        Map<String, Long> deltas = new HashMap<>();
+        unflushed.forEach((endpoint, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(endpoint, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            repository.addAll(deltas);
+            log.debug("Visit counters flushed: {} endpoints", deltas.size());
+        } catch (RuntimeException e) {
+            deltas.forEach((endpoint, delta) -> unflushed.get(endpoint).add(delta));
+            log.warn("Failed to flush visit counters, will retry: {}", e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS idx_countries_code_upper ON countries (upper(code));
+CREATE INDEX IF NOT EXISTS idx_countries_name_lower ON countries (lower(name));
+DELETE FROM prefixes p USING prefixes d
+WHERE p.prefix = d.prefix AND p.country_code = d.country_code AND p.id > d.id
+  AND to_regclass('uq_prefixes_prefix_country') IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_prefixes_prefix_country ON prefixes (prefix, country_code);
+
+CREATE TABLE IF NOT EXISTS visit_counters (
+    endpoint VARCHAR(255) PRIMARY KEY,
+    visits BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS dataset_version (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+INSERT INTO dataset_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
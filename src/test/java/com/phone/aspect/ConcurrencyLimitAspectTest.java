@@ -0,0 +1,88 @@
+package com.phone.aspect;
+
+import com.phone.concurrency.AdaptiveConcurrencyLimiter;
+import com.phone.service.CountryService;
+import com.phone.service.JsonExportService;
+import com.phone.service.PhoneNumberPrefixService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitAspectTest {
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0);
+    private final ConcurrencyLimitAspect aspect = new ConcurrencyLimitAspect(limiter);
+
+    @Test
+    void memoryServedReadShouldNotTakeSlot() throws Throwable {
+        aspect.limit(joinPoint(PhoneNumberPrefixService.class.getMethod("getById", Long.class),
+                () -> null));
+
+        assertEquals(0, limiter.stats().getAccepted());
+    }
+
+    @Test
+    void databaseFallbackOfReadShouldBeLimitedPerStatement() throws Throwable {
+        ProceedingJoinPoint query = joinPoint(null, () -> {
+            assertEquals(1, limiter.stats().getInFlight());
+            return null;
+        });
+        aspect.limit(joinPoint(PhoneNumberPrefixService.class.getMethod("getById", Long.class),
+                () -> {
+                    aspect.limitStatement(query);
+                    aspect.limitStatement(query);
+                    return null;
+                }));
+
+        assertEquals(2, limiter.stats().getAccepted());
+        assertEquals(0, limiter.stats().getInFlight());
+    }
+
+    @Test
+    void exportShouldNotHoldSlotBetweenStatements() throws Throwable {
+        aspect.limitBulk(joinPoint(
+                JsonExportService.class.getMethod("writePrefixes", OutputStream.class), () -> {
+                    aspect.limitStatement(joinPoint(null, () -> null));
+                    assertEquals(0, limiter.stats().getInFlight());
+                    return null;
+                }));
+
+        assertEquals(1, limiter.stats().getAccepted());
+    }
+
+    @Test
+    void writeShouldHoldOneSlotForWholeCall() throws Throwable {
+        aspect.limit(joinPoint(CountryService.class.getMethod("delete", String.class), () -> {
+            aspect.limitStatement(joinPoint(null, () -> null));
+            assertEquals(1, limiter.stats().getInFlight());
+            return null;
+        }));
+
+        assertEquals(1, limiter.stats().getAccepted());
+    }
+
+    @Test
+    void repositoryCallOutsideServicesShouldPassThrough() throws Throwable {
+        aspect.limitStatement(joinPoint(null, () -> null));
+
+        assertEquals(0, limiter.stats().getAccepted());
+    }
+
+    private static ProceedingJoinPoint joinPoint(Method method, Body body) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenAnswer(invocation -> body.run());
+        return joinPoint;
+    }
+
+    private interface Body {
+        Object run() throws Throwable;
+    }
+}
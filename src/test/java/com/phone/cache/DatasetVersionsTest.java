@@ -0,0 +1,49 @@
+package com.phone.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetVersionsTest {
+
+    private final DatasetVersions versions = new DatasetVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changedShouldBumpCountryAndGlobalVersions() {
+        String before = versions.countryTag("BY");
+
+        versions.changed(List.of("BY", "RU"));
+
+        assertEquals(1, versions.country("BY"));
+        assertEquals(1, versions.country("RU"));
+        assertEquals(0, versions.country("US"));
+        assertEquals(1, versions.global());
+        assertNotEquals(before, versions.countryTag("BY"));
+        assertTrue(versions.globalTag().startsWith("\"") && versions.globalTag().endsWith("\""));
+    }
+
+    @Test
+    void changedShouldWaitForCommitInsideTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.changed("BY");
+        assertEquals(0, versions.country("BY"));
+
+        for (TransactionSynchronization synchronization
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, versions.country("BY"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.phone.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LfuCacheManagerTest {
+
+    @Test
+    void getCacheShouldApplyNamedSpecOrDefaults() {
+        CacheProperties properties = new CacheProperties();
+        properties.setDefaults(new CacheSpec(50, Duration.ofMinutes(1), 0));
+        properties.getSpecs().put("prefixes", CacheSpec.ofSize(2));
+        LfuCacheManager manager = new LfuCacheManager(properties);
+
+        assertEquals(2, manager.getCache("prefixes").getNativeCache().capacity());
+        assertEquals(50, manager.getCache("other").getNativeCache().capacity());
+        assertSame(manager.getCache("prefixes"), manager.getCache("prefixes"));
+        assertTrue(manager.getCacheNames().contains("other"));
+    }
+
+    @Test
+    void cacheShouldStayBoundedAndSupportNullValues() {
+        CacheProperties properties = new CacheProperties();
+        properties.getSpecs().put("small", CacheSpec.ofSize(2));
+        Cache cache = new LfuCacheManager(properties).getCache("small");
+
+        cache.put(1L, "one");
+        cache.put(2L, null);
+        cache.get(1L);
+        cache.get(2L);
+        cache.put(3L, "three");
+
+        assertEquals(2, ((SpringLfuCache) cache).getNativeCache().size());
+        assertNotNull(cache.get(2L));
+        assertNull(cache.get(2L).get());
+        assertEquals("loaded", cache.get(4L, () -> "loaded"));
+        assertEquals("loaded", cache.get(4L, String.class));
+    }
+}
@@ -0,0 +1,204 @@
+package com.phone.cache;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LfuCacheTest {
+
+    private static class TestCache extends LfuCache<Long, String> {
+        TestCache(int capacity, int concurrencyLevel) {
+            super(capacity, concurrencyLevel);
+        }
+
+        TestCache(CacheSpec spec, LongSupplier clock) {
+            super(spec, 1, clock);
+        }
+
+        @Override
+        protected long weigh(String value) {
+            return value.length();
+        }
+    }
+
+    @Test
+    void putShouldEvictLeastFrequentlyUsed() {
+        TestCache cache = new TestCache(2, 1);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.get(1L);
+
+        cache.put(3L, "three");
+
+        assertEquals("one", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("three", cache.get(3L));
+    }
+
+    @Test
+    void putShouldEvictOldestOnFrequencyTie() {
+        TestCache cache = new TestCache(2, 1);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        cache.put(3L, "three");
+
+        assertNull(cache.get(1L));
+        assertEquals("two", cache.get(2L));
+    }
+
+    @Test
+    void putShouldUpdateExistingValue() {
+        TestCache cache = new TestCache(2, 1);
+        cache.put(1L, "one");
+        cache.put(1L, "uno");
+
+        assertEquals("uno", cache.get(1L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void removeAndClearShouldDropEntries() {
+        TestCache cache = new TestCache(4, 1);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        cache.remove(1L);
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void agingShouldLetStaleHotKeysBeEvicted() {
+        TestCache cache = new TestCache(2, 1);
+        cache.put(1L, "one");
+        for (int i = 0; i < 8; i++) {
+            cache.get(1L);
+        }
+        for (long key = 2; key < 40; key++) {
+            cache.put(key, "cold");
+            cache.get(key);
+            cache.get(key);
+        }
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void concurrentAccessShouldRespectCapacity() throws Exception {
+        TestCache cache = new TestCache(256, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (long i = 0; i < 10_000; i++) {
+                    long key = (i * 31 + offset) % 1024;
+                    if (cache.get(key) == null) {
+                        cache.put(key, "v" + key);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertTrue(cache.size() <= cache.capacity());
+    }
+
+    @Test
+    void getShouldDropExpiredEntries() {
+        AtomicLong now = new AtomicLong();
+        TestCache cache = new TestCache(new CacheSpec(4, Duration.ofSeconds(10), 0), now::get);
+        cache.put(1L, "one");
+
+        now.set(Duration.ofSeconds(9).toNanos());
+        assertEquals("one", cache.get(1L));
+
+        now.set(Duration.ofSeconds(10).toNanos());
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putShouldEvictUntilWeightFits() {
+        TestCache cache = new TestCache(new CacheSpec(10, null, 10), System::nanoTime);
+        cache.put(1L, "aaaa");
+        cache.put(2L, "bbbb");
+        cache.get(2L);
+
+        cache.put(3L, "cccccc");
+
+        assertNull(cache.get(1L));
+        assertEquals("bbbb", cache.get(2L));
+        assertEquals("cccccc", cache.get(3L));
+    }
+
+    @Test
+    void putShouldSkipValuesHeavierThanLimit() {
+        TestCache cache = new TestCache(new CacheSpec(10, null, 5), System::nanoTime);
+        cache.put(1L, "one");
+        cache.put(1L, "way too heavy");
+
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void hottestShouldReturnMostUsedKeysFirst() {
+        TestCache cache = new TestCache(10, 1);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        cache.get(2L);
+        cache.get(2L);
+        cache.get(3L);
+
+        List<Map.Entry<Long, Integer>> hottest = cache.hottest(2);
+
+        assertEquals(List.of(Map.entry(2L, 3), Map.entry(3L, 2)), hottest);
+    }
+
+    @Test
+    void seedShouldKeepFrequencyAndNotReplaceCachedValues() {
+        TestCache cache = new TestCache(2, 1);
+        cache.put(1L, "one");
+        cache.seed(1L, "stale", 50);
+        cache.seed(2L, "two", 5);
+
+        cache.put(3L, "three");
+
+        assertEquals("two", cache.get(2L));
+        assertNull(cache.get(1L));
+        assertEquals(Map.entry(2L, 6), cache.hottest(1).get(0));
+    }
+
+    @Test
+    void seedShouldNotEvictHotterEntries() {
+        TestCache cache = new TestCache(1, 1);
+        cache.put(1L, "one");
+        cache.get(1L);
+        cache.get(1L);
+
+        cache.seed(2L, "two", 2);
+
+        assertEquals("one", cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+}
@@ -0,0 +1,82 @@
+package com.phone.cache;
+
+import com.phone.dto.PrefixDtoResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixCacheTest {
+
+    private PrefixCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.getSpecs().put(PrefixCache.NAME, CacheSpec.ofSize(4));
+        cache = new PrefixCache(new LfuCacheManager(properties));
+    }
+
+    @Test
+    void removeCountryShouldEvictOnlyThatCountry() {
+        cache.put(1L, dto(1L, "RU"));
+        cache.put(2L, dto(2L, "RU"));
+        cache.put(3L, dto(3L, "BY"));
+
+        cache.removeCountry("RU");
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+    }
+
+    @Test
+    void putShouldMoveIdToNewCountry() {
+        cache.put(1L, dto(1L, "RU"));
+        cache.put(1L, dto(1L, "BY"));
+
+        cache.removeCountry("RU");
+        assertNotNull(cache.get(1L));
+
+        cache.removeCountry("BY");
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void removeCountryShouldSkipIdsAlreadyEvicted() {
+        for (long id = 1; id <= 100; id++) {
+            cache.put(id, dto(id, "RU"));
+        }
+
+        cache.removeCountry("RU");
+
+        assertTrue(cache.hottest(10).isEmpty());
+    }
+
+    @Test
+    void writesInTransactionShouldApplyOnlyAfterCommit() {
+        cache.put(1L, dto(1L, "RU"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(1L, dto(1L, "BY"));
+            cache.put(2L, dto(2L, "BY"));
+            assertEquals("RU", cache.get(1L).getCountryCode());
+
+            for (TransactionSynchronization synchronization
+                    : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("RU", cache.get(1L).getCountryCode());
+        assertNull(cache.get(2L));
+    }
+
+    private static PrefixDtoResponse dto(Long id, String countryCode) {
+        return new PrefixDtoResponse(id, "90" + id, "Region", countryCode);
+    }
+}
@@ -0,0 +1,109 @@
+package com.phone.cache;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.index.DatasetSnapshot;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import com.phone.service.PhoneNumberPrefixService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class PrefixCacheWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    private PrefixCache cache;
+    private PhoneNumberPrefixRepository repository;
+    private DatasetVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        CacheProperties properties = new CacheProperties();
+        properties.getSpecs().put(PrefixCache.NAME, CacheSpec.ofSize(100));
+        cache = new PrefixCache(new LfuCacheManager(properties));
+        repository = mock(PhoneNumberPrefixRepository.class);
+        versions = new DatasetVersions();
+    }
+
+    @Test
+    void savedFrequenciesShouldBeSeededAfterRestart() throws Exception {
+        Path file = dir.resolve("hot.txt");
+        cache.put(1L, dto(1L));
+        cache.put(2L, dto(2L));
+        for (int i = 0; i < 4; i++) {
+            cache.get(2L);
+        }
+        new PrefixCacheWarmup(cache, repository, versions, file.toString(), 10).save();
+        assertEquals(List.of("2 5", "1 1"), Files.readAllLines(file));
+
+        PrefixCache restarted = new PrefixCache(new LfuCacheManager(new CacheProperties()));
+        when(repository.findDtosByIdIn(Set.of(2L, 1L))).thenReturn(List.of(dto(1L), dto(2L)));
+        new PrefixCacheWarmup(restarted, repository, versions, file.toString(), 10).warmUp();
+
+        verify(repository, times(1)).findDtosByIdIn(anyCollection());
+        assertEquals(Map.of(2L, 5, 1L, 1), restarted.hottest(10));
+        assertEquals(dto(2L), restarted.get(2L));
+    }
+
+    @Test
+    void snapshotReadsShouldCountTowardsSavedFrequencies() throws Exception {
+        Path file = dir.resolve("hot.txt");
+        CountryDtoResponse country = new CountryDtoResponse();
+        country.setCode("RU");
+        country.setPrefixes(List.of(dto(1L), dto(2L)));
+        DatasetSnapshotStore snapshots = mock(DatasetSnapshotStore.class);
+        when(snapshots.current()).thenReturn(Optional.of(DatasetSnapshot.of(List.of(country))));
+        PhoneNumberPrefixService service = new PhoneNumberPrefixService(repository, null, cache,
+                null, null, snapshots);
+
+        service.getById(1L);
+        for (int i = 0; i < 3; i++) {
+            service.getById(2L);
+        }
+        new PrefixCacheWarmup(cache, repository, versions, file.toString(), 10).save();
+
+        assertEquals(List.of("2 3", "1 1"), Files.readAllLines(file));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void warmUpShouldDiscardRowsWhenDataChangedMeanwhile() throws Exception {
+        Path file = dir.resolve("hot.txt");
+        Files.writeString(file, "7 3\n");
+        when(repository.findDtosByIdIn(anyCollection())).thenAnswer(invocation -> {
+            versions.changedAll();
+            return List.of(dto(7L));
+        });
+
+        new PrefixCacheWarmup(cache, repository, versions, file.toString(), 10).warmUp();
+
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    void unreadableFileShouldBeIgnored() throws Exception {
+        Path file = dir.resolve("hot.txt");
+        Files.writeString(file, "not numbers\n");
+
+        new PrefixCacheWarmup(cache, repository, versions, file.toString(), 10).warmUp();
+
+        verifyNoInteractions(repository);
+    }
+
+    private static PrefixDtoResponse dto(Long id) {
+        return new PrefixDtoResponse(id, "90" + id, "Region " + id, "RU");
+    }
+}
@@ -0,0 +1,79 @@
+package com.phone.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phone.dto.PrefixDtoResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseByteCacheTest {
+
+    private final DatasetVersions versions = new DatasetVersions();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResponseByteCache cache = new ResponseByteCache(
+            new LfuCacheManager(new CacheProperties()), versions, objectMapper, true);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void respondShouldServeCachedBytesUntilCountryChanges() {
+        ResponseEntity<byte[]> first = respond("prefix:1");
+        ResponseEntity<byte[]> second = respond("prefix:1");
+
+        assertEquals(1, loads.get());
+        assertSame(first.getBody(), second.getBody());
+        assertTrue(new String(second.getBody(), StandardCharsets.UTF_8).contains("\"prefix\":\"29\""));
+
+        versions.changed("RU");
+        respond("prefix:1");
+        assertEquals(1, loads.get());
+
+        versions.changed("BY");
+        respond("prefix:1");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void respondShouldNotCacheWhenDataChangesDuringLoad() {
+        cache.respond("prefix:1", null, () -> {
+            versions.changed("BY");
+            return prefix();
+        }, PrefixDtoResponse::getCountryCode);
+
+        assertNull(cache.get("prefix:1"));
+    }
+
+    @Test
+    void respondShouldGzipLargeBodiesWhenAccepted() throws Exception {
+        List<PrefixDtoResponse> prefixes = Collections.nCopies(50, prefix());
+
+        ResponseEntity<byte[]> plain = cache.respond("country-prefixes:BY", null,
+                () -> prefixes, list -> "BY");
+        ResponseEntity<byte[]> gzipped = cache.respond("country-prefixes:BY", "gzip, deflate",
+                () -> prefixes, list -> "BY");
+
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))
+                .readAllBytes();
+        assertArrayEquals(plain.getBody(), unzipped);
+    }
+
+    private ResponseEntity<byte[]> respond(String key) {
+        return cache.respond(key, null, () -> {
+            loads.incrementAndGet();
+            return prefix();
+        }, PrefixDtoResponse::getCountryCode);
+    }
+
+    private static PrefixDtoResponse prefix() {
+        return new PrefixDtoResponse(1L, "29", "Velcom", "BY");
+    }
+}
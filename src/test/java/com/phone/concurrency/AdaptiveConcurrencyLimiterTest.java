@@ -0,0 +1,93 @@
+package com.phone.concurrency;
+
+import com.phone.exception.OverloadedException;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void acquireShouldPassThroughForNestedCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(1, limiter.stats().getInFlight());
+
+        limiter.release(MS, false);
+        assertEquals(0, limiter.stats().getInFlight());
+        assertEquals(1, limiter.stats().getAccepted());
+    }
+
+    @Test
+    void acquireShouldRejectImmediatelyOverLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 2.0);
+        limiter.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> other = executor.submit(limiter::acquire);
+            Exception thrown = assertThrows(Exception.class,
+                    () -> other.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OverloadedException.class, thrown.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, limiter.stats().getRejected());
+    }
+
+    @Test
+    void limitShouldGrowWhileLatencyIsSteadyAndBusy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.update(5 * MS, limiter.limit(), false);
+        }
+
+        assertEquals(100, limiter.limit());
+    }
+
+    @Test
+    void limitShouldNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.update(5 * MS, 1, false);
+        }
+
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    void limitShouldShrinkWhenLatencyRisesAboveTolerance() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 2.0);
+        for (int i = 0; i < 20; i++) {
+            limiter.update(5 * MS, 1, false);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            limiter.update(100 * MS, limiter.limit(), false);
+        }
+
+        assertTrue(limiter.limit() < 10, "limit " + limiter.limit());
+        assertTrue(limiter.limit() >= 1);
+    }
+
+    @Test
+    void dropShouldCutLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 2.0);
+        limiter.acquire();
+
+        limiter.release(MS, true);
+
+        assertEquals(18, limiter.limit());
+        assertEquals(1, limiter.stats().getDropped());
+    }
+}
@@ -0,0 +1,78 @@
+package com.phone.concurrency;
+
+import com.phone.exception.OverloadedException;
+import com.phone.metrics.LatencyRegistry;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseBulkheadTest {
+
+    @Test
+    void acquireShouldPassThroughForNestedCalls() {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofMillis(10),
+                new LatencyRegistry());
+
+        assertTrue(bulkhead.acquire());
+        assertFalse(bulkhead.acquire());
+        assertEquals(1, bulkhead.stats().getActive());
+
+        bulkhead.release();
+        assertEquals(0, bulkhead.stats().getActive());
+        assertEquals(1, bulkhead.stats().getAcquired());
+    }
+
+    @Test
+    void acquireShouldRejectAfterMaxWait() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofMillis(20),
+                new LatencyRegistry());
+        bulkhead.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> other = executor.submit(bulkhead::acquire);
+            Exception thrown = assertThrows(Exception.class,
+                    () -> other.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(OverloadedException.class, thrown.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, bulkhead.stats().getRejected());
+        assertEquals(1, bulkhead.stats().getPeakParked());
+    }
+
+    @Test
+    void parkedCallerShouldProceedOnceReleased() throws Exception {
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofSeconds(5),
+                new LatencyRegistry());
+        bulkhead.acquire();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            Future<Boolean> other = executor.submit(() -> {
+                started.countDown();
+                boolean acquired = bulkhead.acquire();
+                bulkhead.release();
+                return acquired;
+            });
+            started.await();
+            while (bulkhead.stats().getParked() == 0) {
+                Thread.onSpinWait();
+            }
+            bulkhead.release();
+
+            assertTrue(other.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, bulkhead.stats().getAcquired());
+        assertEquals(0, bulkhead.stats().getActive());
+    }
+}
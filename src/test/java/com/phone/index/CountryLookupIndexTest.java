@@ -0,0 +1,54 @@
+package com.phone.index;
+
+import com.phone.model.Country;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountryLookupIndexTest {
+
+    private CountryLookupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CountryLookupIndex(null);
+        index.rebuild(List.of(
+                new Country("DE", "Germany", "+49", null),
+                new Country("US", "United States", "+1", null),
+                new Country("CA", "Canada", "+1", null)));
+    }
+
+    @Test
+    void findShouldMatchCodeIgnoringCase() {
+        assertEquals(Optional.of("DE"), index.find("de"));
+    }
+
+    @Test
+    void findShouldMatchNameIgnoringCase() {
+        assertEquals(Optional.of("DE"), index.find("GERMANY"));
+    }
+
+    @Test
+    void findShouldMatchPhoneCodeDeterministically() {
+        assertEquals(Optional.of("CA"), index.find("+1"));
+    }
+
+    @Test
+    void putShouldReplaceStaleKeys() {
+        index.put(new Country("DE", "Deutschland", "+49", null));
+
+        assertTrue(index.find("Germany").isEmpty());
+        assertEquals(Optional.of("DE"), index.find("deutschland"));
+    }
+
+    @Test
+    void removeShouldDropAllKeys() {
+        index.remove("CA");
+
+        assertTrue(index.find("canada").isEmpty());
+        assertEquals(Optional.of("US"), index.find("+1"));
+    }
+}
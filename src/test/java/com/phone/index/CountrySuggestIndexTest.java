@@ -0,0 +1,93 @@
+package com.phone.index;
+
+import com.phone.dto.CountrySuggestResponse;
+import com.phone.model.Country;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountrySuggestIndexTest {
+
+    private CountrySuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CountrySuggestIndex(null);
+        index.rebuild(List.of(
+                new Country("BY", "Беларусь", "+375", null),
+                new Country("RU", "Россия", "+7", null),
+                new Country("KZ", "Казахстан", "+7", null),
+                new Country("US", "United States", "+1", null),
+                new Country("AE", "United Arab Emirates", "+971", null),
+                new Country("DE", "Germany", "+49", null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void suggestShouldFoldCaseForCyrillicAndLatin() {
+        assertEquals(List.of("BY"), codes(index.suggest("БЕЛ", 10)));
+        assertEquals(List.of("DE"), codes(index.suggest("gErM", 10)));
+    }
+
+    @Test
+    void suggestShouldRankNamePrefixBeforeWordPrefixAndInfix() {
+        index.put(new Country("SM", "Samoa States", "+685", null));
+
+        assertEquals(List.of("SM", "US"), codes(index.suggest("stat", 10)));
+        assertEquals(List.of("US", "AE"), codes(index.suggest("united", 10)));
+        assertEquals(List.of("KZ"), codes(index.suggest("хста", 10)));
+    }
+
+    @Test
+    void suggestShouldMatchCodeAndPhoneCode() {
+        assertEquals(List.of("RU", "KZ"), codes(index.suggest("+7", 10)));
+        assertEquals(List.of("AE"), codes(index.suggest("97", 10)));
+        assertEquals("US", index.suggest("us", 10).get(0).getCode());
+    }
+
+    @Test
+    void suggestShouldRespectLimitAndIgnoreBlankQueries() {
+        assertEquals(1, index.suggest("u", 1).size());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void putAndRemoveShouldUpdateIndexIncrementally() {
+        index.put(new Country("BY", "Belarus", "+375", null));
+        index.remove("DE");
+
+        assertTrue(index.suggest("бел", 10).isEmpty());
+        assertEquals(List.of("BY"), codes(index.suggest("bela", 10)));
+        assertTrue(index.suggest("germ", 10).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void rollbackShouldDiscardChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.put(new Country("FR", "France", "+33", null));
+        index.remove("DE");
+
+        for (TransactionSynchronization synchronization
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertTrue(index.suggest("fra", 10).isEmpty());
+        assertEquals(List.of("DE"), codes(index.suggest("germ", 10)));
+    }
+
+    private static List<String> codes(List<CountrySuggestResponse> suggestions) {
+        return suggestions.stream().map(CountrySuggestResponse::getCode).toList();
+    }
+}
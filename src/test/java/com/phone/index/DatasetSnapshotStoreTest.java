@@ -0,0 +1,238 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.mapper.CountryMapper;
+import com.phone.mapper.PrefixMapper;
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.DatasetVersionRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatasetSnapshotStoreTest {
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private PhoneNumberPrefixRepository prefixRepository;
+
+    @Mock
+    private DatasetVersionRepository versionRepository;
+
+    private DatasetSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(countryRepository.findAll()).thenReturn(List.of(
+                new Country("BY", "Belarus", "+375", null),
+                new Country("DE", "Germany", "+49", null)));
+        when(prefixRepository.findAllDtos()).thenReturn(List.of(
+                new PrefixDtoResponse(3L, "29", "Velcom", "BY"),
+                new PrefixDtoResponse(1L, "151", "Telekom", "DE"),
+                new PrefixDtoResponse(2L, "33", "MTS", "BY")));
+        when(versionRepository.current()).thenReturn(5L);
+
+        store = new DatasetSnapshotStore(countryRepository, prefixRepository, versionRepository,
+                new CountryMapper(new PrefixMapper(countryRepository)), new SnapshotFile(null),
+                true, Duration.ZERO);
+        store.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadShouldIndexCountriesAndPrefixes() {
+        DatasetSnapshot snapshot = store.current().orElseThrow();
+
+        assertEquals(List.of("BY", "DE"),
+                snapshot.countries().stream().map(CountryDtoResponse::getCode).toList());
+        assertEquals(List.of(2L, 3L), ids(snapshot.prefixesOfCountry("BY")));
+        assertEquals(List.of(1L, 2L, 3L), ids(snapshot.prefixes()));
+        assertEquals("Telekom", snapshot.prefix(1L).orElseThrow().getRegionName());
+        assertEquals(List.of(2L, 3L), ids(snapshot.prefixesOfCountryName("Belarus")));
+        assertEquals(List.of(2L, 3L), ids(snapshot.prefixesAfter(1L, 5)));
+        assertEquals(List.of("DE"), snapshot.countriesAfter("BY", 5).stream()
+                .map(CountryDtoResponse::getCode).toList());
+    }
+
+    @Test
+    void changesShouldBecomeVisibleOnlyAfterCommit() {
+        DatasetSnapshot before = store.current().orElseThrow();
+        TransactionSynchronizationManager.initSynchronization();
+
+        store.putPrefix(new PrefixDtoResponse(4L, "44", "A1", "BY"));
+        store.putCountry(new Country("BY", "Беларусь", "+375", null));
+        store.removePrefix(1L, "DE");
+        assertSame(before, store.current().orElseThrow());
+
+        complete(true);
+
+        DatasetSnapshot after = store.current().orElseThrow();
+        assertEquals(List.of(2L, 3L, 4L), ids(after.prefixesOfCountry("BY")));
+        assertEquals("Беларусь", after.country("BY").orElseThrow().getName());
+        assertTrue(after.prefix(1L).isEmpty());
+        assertEquals(List.of(1L, 2L, 3L), ids(before.prefixes()));
+        assertEquals("Belarus", before.country("BY").orElseThrow().getName());
+    }
+
+    @Test
+    void rollbackShouldDiscardChanges() {
+        DatasetSnapshot before = store.current().orElseThrow();
+        TransactionSynchronizationManager.initSynchronization();
+
+        store.removeCountry("BY");
+
+        complete(false);
+
+        assertSame(before, store.current().orElseThrow());
+    }
+
+    @Test
+    void versionShouldAdvanceWithCommittedVersions() {
+        assertEquals(5L, store.version());
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.putPrefix(new PrefixDtoResponse(4L, "44", "A1", "BY"));
+        store.committed(6L);
+        assertEquals(5L, store.version());
+        complete(true);
+        assertEquals(6L, store.version());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        store.committed(7L);
+        assertEquals(7L, store.version());
+    }
+
+    @Test
+    void gapShouldReloadSnapshotFromDatabase() {
+        when(prefixRepository.findAllDtos()).thenReturn(List.of(
+                new PrefixDtoResponse(5L, "25", "Life", "BY")));
+        when(versionRepository.current()).thenReturn(8L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.removePrefix(3L, "BY");
+        store.committed(8L);
+        complete(true);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        verify(versionRepository, timeout(1000).times(2)).current();
+        verify(prefixRepository, timeout(1000).times(2)).findAllDtos();
+        assertEquals(8L, store.version());
+        assertEquals(List.of(5L), ids(store.current().orElseThrow().prefixes()));
+        store.committed(9L);
+        assertEquals(9L, store.version());
+    }
+
+    @Test
+    void deferredBatchesShouldApplyTogetherWithNextChange() {
+        DatasetSnapshotStore delayed = new DatasetSnapshotStore(countryRepository,
+                prefixRepository, versionRepository,
+                new CountryMapper(new PrefixMapper(countryRepository)), new SnapshotFile(null),
+                true, Duration.ofHours(1));
+        delayed.load();
+        DatasetSnapshot before = delayed.current().orElseThrow();
+
+        TransactionSynchronizationManager.initSynchronization();
+        delayed.putPrefixesDeferred(List.of(new PrefixDtoResponse(4L, "44", "A1", "BY")));
+        delayed.committed(6L);
+        complete(true);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertSame(before, delayed.current().orElseThrow());
+        assertEquals(5L, delayed.version());
+
+        TransactionSynchronizationManager.initSynchronization();
+        delayed.removePrefix(3L, "BY");
+        delayed.committed(7L);
+        complete(true);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(List.of(1L, 2L, 4L), ids(delayed.current().orElseThrow().prefixes()));
+        assertEquals(7L, delayed.version());
+        delayed.flush();
+    }
+
+    @Test
+    void flushShouldApplyDeferredBatches() {
+        DatasetSnapshotStore delayed = new DatasetSnapshotStore(countryRepository,
+                prefixRepository, versionRepository,
+                new CountryMapper(new PrefixMapper(countryRepository)), new SnapshotFile(null),
+                true, Duration.ofHours(1));
+        delayed.load();
+
+        TransactionSynchronizationManager.initSynchronization();
+        delayed.putPrefixesDeferred(List.of(new PrefixDtoResponse(4L, "44", "A1", "BY")));
+        delayed.committed(6L);
+        complete(true);
+        TransactionSynchronizationManager.clearSynchronization();
+        delayed.flush();
+
+        assertTrue(delayed.current().orElseThrow().prefix(4L).isPresent());
+        assertEquals(6L, delayed.version());
+    }
+
+    @Test
+    void changeWithoutVersionShouldMakeVersionUnknown() {
+        store.removeCountry("DE");
+
+        assertEquals(DatasetSnapshotStore.UNKNOWN_VERSION, store.version());
+        store.load();
+        assertEquals(5L, store.version());
+    }
+
+    @Test
+    void removeCountryShouldDropItsPrefixes() {
+        store.removeCountry("BY");
+
+        DatasetSnapshot snapshot = store.current().orElseThrow();
+        assertTrue(snapshot.country("BY").isEmpty());
+        assertEquals(List.of(1L), ids(snapshot.prefixes()));
+        assertTrue(snapshot.prefix(2L).isEmpty());
+    }
+
+    @Test
+    void disabledStoreShouldStayEmpty() {
+        DatasetSnapshotStore disabled = new DatasetSnapshotStore(countryRepository,
+                prefixRepository, versionRepository, new CountryMapper(new PrefixMapper(countryRepository)),
+                new SnapshotFile(null), false, Duration.ZERO);
+
+        disabled.load();
+        disabled.putPrefix(new PrefixDtoResponse(4L, "44", "A1", "BY"));
+
+        assertTrue(disabled.current().isEmpty());
+    }
+
+    private static List<Long> ids(List<PrefixDtoResponse> prefixes) {
+        return prefixes.stream().map(PrefixDtoResponse::getId).toList();
+    }
+
+    private static void complete(boolean committed) {
+        for (TransactionSynchronization synchronization
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.repository.DatasetVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.*;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatasetWarmupTest {
+
+    @TempDir
+    Path dir;
+
+    @Mock
+    private DatasetSnapshotStore snapshots;
+
+    @Mock
+    private DatasetVersionRepository versionRepository;
+
+    @Mock
+    private PrefixResolver resolver;
+
+    @Mock
+    private CountryLookupIndex lookupIndex;
+
+    @Mock
+    private CountrySuggestIndex suggestIndex;
+
+    private SnapshotFile file;
+    private DatasetWarmup warmup;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(snapshots.enabled()).thenReturn(true);
+        file = new SnapshotFile(dir.resolve("snapshot.bin").toString());
+        warmup = new DatasetWarmup(snapshots, file, versionRepository, resolver, lookupIndex,
+                suggestIndex);
+
+        CountryDtoResponse country = new CountryDtoResponse();
+        country.setCode("BY");
+        country.setName("Belarus");
+        country.setPhoneCode("+375");
+        country.setPrefixes(List.of(new PrefixDtoResponse(1L, "29", "Velcom", "BY")));
+        file.write(DatasetSnapshot.of(List.of(country)), 12);
+    }
+
+    @Test
+    void fileAtDatabaseVersionShouldBeUsedWithoutLoading() {
+        when(versionRepository.current()).thenReturn(12L);
+
+        warmup.warmUp();
+
+        verify(snapshots).replace(any(), eq(12L));
+        verify(resolver).rebuild(anyCollection(), anyCollection());
+        verify(snapshots, never()).load();
+        verify(resolver, never()).load();
+    }
+
+    @Test
+    void staleFileShouldBeIgnored() {
+        when(versionRepository.current()).thenReturn(13L);
+
+        warmup.warmUp();
+
+        verify(snapshots).load();
+        verify(resolver).load();
+        verify(lookupIndex).load();
+        verify(suggestIndex).load();
+        verify(snapshots, never()).replace(any(), anyLong());
+    }
+}
@@ -0,0 +1,85 @@
+package com.phone.index;
+
+import com.phone.dto.PrefixDtoResponse;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedPrefixTableTest {
+
+    @Test
+    void rowsShouldRoundTripThroughPackedColumns() {
+        PackedPrefixTable table = PackedPrefixTable.of(List.of(
+                new PrefixDtoResponse(7L, "0291", "Minsk", "BY"),
+                new PrefixDtoResponse(3L, "123456789012345", "Long", "DE"),
+                new PrefixDtoResponse(5L, "12-3", "Odd", "BY")));
+
+        assertEquals(List.of(
+                new PrefixDtoResponse(3L, "123456789012345", "Long", "DE"),
+                new PrefixDtoResponse(5L, "12-3", "Odd", "BY"),
+                new PrefixDtoResponse(7L, "0291", "Minsk", "BY")), table.rows(0, 3));
+        assertEquals(List.of(5L, 7L), ids(table.rowsOfCountry("BY")));
+        assertEquals(1, table.find(5L));
+        assertEquals(-1, table.find(4L));
+        assertEquals(2, table.firstAfter(5L));
+        assertEquals(1, table.firstAfter(4L));
+    }
+
+    @Test
+    void withShouldMergeUpsertsAndDropRemovedRows() {
+        PackedPrefixTable table = PackedPrefixTable.of(List.of(
+                new PrefixDtoResponse(1L, "29", "Velcom", "BY"),
+                new PrefixDtoResponse(2L, "33", "MTS", "BY"),
+                new PrefixDtoResponse(3L, "151", "Telekom", "DE"),
+                new PrefixDtoResponse(4L, "160", "Vodafone", "DE")));
+
+        PackedPrefixTable changed = table.with(List.of(
+                        new PrefixDtoResponse(2L, "33", "МТС", "BY"),
+                        new PrefixDtoResponse(9L, "44", "A1", "BY")),
+                Set.of(1L), Set.of("DE"));
+
+        assertEquals(List.of(2L, 9L), ids(changed.rows(0, changed.size())));
+        assertEquals("МТС", changed.regionName(0));
+        assertEquals(0, changed.countOfCountry("DE"));
+        assertEquals(4, table.size());
+    }
+
+    @Test
+    void withShouldKeepUnpackedPrefixesAndRegionsOfCopiedRows() {
+        PackedPrefixTable table = PackedPrefixTable.of(List.of(
+                new PrefixDtoResponse(1L, "12-3", "Odd", "BY"),
+                new PrefixDtoResponse(2L, "29", "Velcom", "BY"),
+                new PrefixDtoResponse(3L, "151", "Telekom", "DE")));
+
+        PackedPrefixTable changed = table.with(List.of(
+                new PrefixDtoResponse(4L, "25", "Velcom", "PL")), Set.of(2L), Set.of());
+
+        assertEquals(List.of(
+                new PrefixDtoResponse(1L, "12-3", "Odd", "BY"),
+                new PrefixDtoResponse(3L, "151", "Telekom", "DE"),
+                new PrefixDtoResponse(4L, "25", "Velcom", "PL")),
+                changed.rows(0, changed.size()));
+        assertEquals(List.of(4L), ids(changed.rowsOfCountry("PL")));
+        assertEquals(List.of(1L), ids(changed.rowsOfCountry("BY")));
+    }
+
+    @Test
+    void packedRowsShouldStayWellBelowDtoFootprint() {
+        List<PrefixDtoResponse> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            rows.add(new PrefixDtoResponse(id, String.valueOf(1000 + id % 9000),
+                    "Region " + id % 200, "C" + id % 250));
+        }
+
+        PackedPrefixTable table = PackedPrefixTable.of(rows);
+
+        assertTrue(table.footprintBytes() / table.size() < 32);
+    }
+
+    private static List<Long> ids(List<PrefixDtoResponse> prefixes) {
+        return prefixes.stream().map(PrefixDtoResponse::getId).toList();
+    }
+}
@@ -0,0 +1,179 @@
+package com.phone.index;
+
+import com.phone.dto.ResolveDtoResponse;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrefixResolverTest {
+
+    private PrefixResolver resolver;
+    private Country belarus;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new PrefixResolver(null, null);
+        belarus = new Country("BY", "Belarus", "+375", new ArrayList<>());
+        Country russia = new Country("RU", "Russia", "+7", new ArrayList<>());
+        resolver.rebuild(List.of(belarus, russia), List.of(
+                new PhoneNumberPrefix(1L, "29", "Velcom", belarus),
+                new PhoneNumberPrefix(2L, "291", "Velcom Minsk", belarus),
+                new PhoneNumberPrefix(3L, "495", "Moscow", russia)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolveShouldPickLongestPrefix() {
+        ResolveDtoResponse result = resolver.resolve("+375 (29) 123-45-67").orElseThrow();
+
+        assertEquals("375291234567", result.getNumber());
+        assertEquals("BY", result.getCountryCode());
+        assertEquals(2L, result.getPrefixId());
+        assertEquals("Velcom Minsk", result.getRegionName());
+    }
+
+    @Test
+    void resolveShouldFallBackToCountry() {
+        ResolveDtoResponse result = resolver.resolve("78121234567").orElseThrow();
+
+        assertEquals("RU", result.getCountryCode());
+        assertNull(result.getPrefixId());
+    }
+
+    @Test
+    void resolveShouldReturnEmptyWhenNothingMatches() {
+        assertTrue(resolver.resolve("999").isEmpty());
+    }
+
+    @Test
+    void resolveShouldRejectLetters() {
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve("37529abc"));
+    }
+
+    @Test
+    void removePrefixShouldFallBackToShorterPrefix() {
+        resolver.removePrefix(2L);
+
+        assertEquals(1L, resolver.resolve("375291234567").orElseThrow().getPrefixId());
+    }
+
+    @Test
+    void putCountryShouldRekeyPrefixesOnPhoneCodeChange() {
+        resolver.putCountry(new Country("BY", "Belarus", "+376", null));
+
+        assertTrue(resolver.resolve("375291234567").isEmpty());
+        assertEquals(2L, resolver.resolve("376291234567").orElseThrow().getPrefixId());
+    }
+
+    @Test
+    void removeCountryShouldDropAllItsPrefixes() {
+        resolver.removeCountry("BY");
+
+        assertTrue(resolver.resolve("375291234567").isEmpty());
+        assertEquals(1, resolver.size());
+    }
+
+    @Test
+    void putPrefixShouldReplaceExistingEntry() {
+        resolver.putPrefix(new PhoneNumberPrefix(2L, "33", "MTS", belarus));
+
+        assertEquals(1L, resolver.resolve("375291234567").orElseThrow().getPrefixId());
+        assertEquals("MTS", resolver.resolve("375331234567").orElseThrow().getRegionName());
+    }
+
+    @Test
+    void putPrefixByFieldsShouldUseIndexedCountry() {
+        resolver.putPrefix(4L, "44", "life:)", "BY");
+        resolver.putPrefix(5L, "1", "Nowhere", "ZZ");
+
+        ResolveDtoResponse result = resolver.resolve("375441234567").orElseThrow();
+        assertEquals(4L, result.getPrefixId());
+        assertEquals("Belarus", result.getCountryName());
+        assertEquals(4, resolver.size());
+    }
+
+    @Test
+    void changesInTransactionShouldApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        resolver.putPrefix(new PhoneNumberPrefix(4L, "44", "life:)", belarus));
+        resolver.removeCountry("RU");
+
+        assertNull(resolver.resolve("375441234567").orElseThrow().getPrefixId());
+        assertEquals("RU", resolver.resolve("74951234567").orElseThrow().getCountryCode());
+
+        complete(true);
+        assertEquals(4L, resolver.resolve("375441234567").orElseThrow().getPrefixId());
+        assertTrue(resolver.resolve("74951234567").isEmpty());
+    }
+
+    @Test
+    void rollbackShouldDiscardChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+        resolver.removePrefix(2L);
+        resolver.putCountry(new Country("BY", "Беларусь", "+375", new ArrayList<>()));
+
+        complete(false);
+        assertEquals(2L, resolver.resolve("375291234567").orElseThrow().getPrefixId());
+        assertEquals("Belarus", resolver.resolve("375291234567").orElseThrow().getCountryName());
+        assertFalse(TransactionSynchronizationManager.hasResource(resolver));
+    }
+
+    @Test
+    void changeDuringLoadShouldNotBeLost() throws Exception {
+        CountryRepository countries = mock(CountryRepository.class);
+        PhoneNumberPrefixRepository prefixes = mock(PhoneNumberPrefixRepository.class);
+        PrefixResolver loading = new PrefixResolver(prefixes, countries);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        when(countries.findAll()).thenAnswer(invocation -> {
+            reading.countDown();
+            changed.await(200, TimeUnit.MILLISECONDS);
+            return List.of(belarus);
+        });
+        when(prefixes.findAllWithCountry()).thenReturn(List.of());
+
+        Thread loader = new Thread(loading::load);
+        loader.start();
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        Thread writer = new Thread(() -> {
+            loading.putPrefix(new PhoneNumberPrefix(4L, "44", "life:)", belarus));
+            changed.countDown();
+        });
+        writer.start();
+        loader.join(5000);
+        writer.join(5000);
+
+        assertEquals(4L, loading.resolve("375441234567").orElseThrow().getPrefixId());
+    }
+
+    private static void complete(boolean committed) {
+        for (TransactionSynchronization synchronization
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.phone.index;
+
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeThenReadShouldRestoreSameContent() {
+        DatasetSnapshot snapshot = DatasetSnapshot.of(List.of(
+                country("BY", "Беларусь", "+375",
+                        new PrefixDtoResponse(1L, "29", "Velcom", "BY"),
+                        new PrefixDtoResponse(2L, "33", null, "BY")),
+                country("DE", "Germany", "+49")));
+        SnapshotFile file = new SnapshotFile(dir.resolve("nested/snapshot.bin").toString());
+
+        file.write(snapshot, 42);
+        DatasetSnapshot restored = file.read().orElseThrow();
+
+        assertTrue(restored.sameContent(snapshot));
+        assertNull(restored.prefix(2L).orElseThrow().getRegionName());
+        assertEquals("Беларусь", restored.country("BY").orElseThrow().getName());
+        assertEquals(42, file.version().orElseThrow());
+    }
+
+    @Test
+    void otherFormatShouldHaveNoVersion() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        SnapshotFile file = new SnapshotFile(path.toString());
+        file.write(DatasetSnapshot.of(List.of(country("DE", "Germany", "+49"))), 3);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[7] = 1;
+        Files.write(path, bytes);
+
+        assertTrue(file.version().isEmpty());
+        assertTrue(file.read().isEmpty());
+    }
+
+    @Test
+    void corruptedFileShouldBeIgnored() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        SnapshotFile file = new SnapshotFile(path.toString());
+        file.write(DatasetSnapshot.of(List.of(country("DE", "Germany", "+49",
+                new PrefixDtoResponse(1L, "151", "Telekom", "DE")))), 1);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(path, bytes);
+
+        assertTrue(file.read().isEmpty());
+    }
+
+    @Test
+    void missingOrDisabledFileShouldReadEmpty() {
+        assertTrue(new SnapshotFile(dir.resolve("absent.bin").toString()).read().isEmpty());
+        assertTrue(new SnapshotFile(dir.resolve("absent.bin").toString()).version().isEmpty());
+        assertFalse(new SnapshotFile("").enabled());
+    }
+
+    private static CountryDtoResponse country(String code, String name, String phoneCode,
+                                              PrefixDtoResponse... prefixes) {
+        CountryDtoResponse country = new CountryDtoResponse();
+        country.setCode(code);
+        country.setName(name);
+        country.setPhoneCode(phoneCode);
+        country.setPrefixes(new ArrayList<>(List.of(prefixes)));
+        return country;
+    }
+}
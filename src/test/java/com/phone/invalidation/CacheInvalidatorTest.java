@@ -0,0 +1,193 @@
+package com.phone.invalidation;
+
+import com.phone.cache.DatasetVersions;
+import com.phone.cache.PrefixCache;
+import com.phone.cache.ResponseByteCache;
+import com.phone.index.CountryLookupIndex;
+import com.phone.index.CountrySuggestIndex;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.DatasetVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidatorTest {
+
+    @Mock
+    private PrefixCache remoteCache;
+
+    @Mock
+    private ResponseByteCache responseCache;
+
+    @Mock
+    private PrefixResolver remoteResolver;
+
+    @Mock
+    private CountryLookupIndex remoteLookupIndex;
+
+    @Mock
+    private DatasetSnapshotStore remoteSnapshots;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private DatasetVersionRepository versionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<InvalidationEvent> published = new ArrayList<>();
+    private final DatasetVersions remoteVersions = new DatasetVersions();
+    private CacheInvalidator local;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(versionRepository.bump()).thenReturn(7L);
+
+        LocalInvalidationBus bus = new LocalInvalidationBus();
+        bus.subscribe(published::add);
+        local = new CacheInvalidator(bus, new DatasetVersions(), mock(PrefixCache.class),
+                responseCache, mock(PrefixResolver.class), mock(CountryLookupIndex.class),
+                mock(CountrySuggestIndex.class), mock(DatasetSnapshotStore.class),
+                countryRepository, versionRepository, transactionTemplate, 3);
+        new CacheInvalidator(bus, remoteVersions, remoteCache, responseCache, remoteResolver,
+                remoteLookupIndex, mock(CountrySuggestIndex.class), remoteSnapshots,
+                countryRepository, versionRepository, transactionTemplate, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changedShouldPublishOneEventPerTransactionAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        local.changed(1L, "BY");
+        local.changed(2L, "BY");
+        local.changed("RU");
+        assertTrue(published.isEmpty());
+
+        commit();
+
+        assertEquals(1, published.size());
+        assertEquals(List.of(1L, 2L), published.get(0).prefixIds().stream().sorted().toList());
+        assertEquals(2, published.get(0).countryCodes().size());
+        assertEquals(7L, published.get(0).version());
+        verify(versionRepository, times(1)).bump();
+    }
+
+    @Test
+    void nextWriterShouldWaitUntilPreviousTransactionCompletes() throws Exception {
+        CacheInvalidator writer = new CacheInvalidator(new LocalInvalidationBus(),
+                new DatasetVersions(), mock(PrefixCache.class), responseCache,
+                mock(PrefixResolver.class), mock(CountryLookupIndex.class),
+                mock(CountrySuggestIndex.class), mock(DatasetSnapshotStore.class),
+                countryRepository, versionRepository, transactionTemplate, 3);
+        TransactionSynchronizationManager.initSynchronization();
+        writer.changed(1L, "BY");
+
+        CompletableFuture<Void> next = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                writer.changed(2L, "BY");
+                commit();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        verify(versionRepository, timeout(1000).times(2)).bump();
+        Thread.sleep(100);
+        assertFalse(next.isDone());
+
+        commit();
+        next.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void remoteNodeShouldEvictPrefixesAndRefreshCountry() {
+        Country belarus = new Country("BY", "Belarus", "+375", new ArrayList<>());
+        PhoneNumberPrefix kept = new PhoneNumberPrefix(2L, "29", "Velcom", belarus);
+        belarus.getPrefixes().add(kept);
+        when(countryRepository.findWithPrefixesByCode("BY")).thenReturn(Optional.of(belarus));
+
+        local.changed(List.of(1L, 2L), List.of("BY"));
+
+        verify(remoteCache).remove(1L);
+        verify(remoteCache).remove(2L);
+        verify(remoteResolver).putCountry(belarus);
+        verify(remoteResolver).putPrefix(kept);
+        verify(remoteResolver).removePrefix(1L);
+        verify(remoteLookupIndex).put(belarus);
+        verify(remoteSnapshots).replaceCountry(belarus);
+        verify(remoteSnapshots).committed(7L);
+        assertEquals(1, remoteVersions.country("BY"));
+    }
+
+    @Test
+    void remoteNodeShouldEvictCachesOnlyAfterRefresh() {
+        Country belarus = new Country("BY", "Belarus", "+375", new ArrayList<>());
+        when(countryRepository.findWithPrefixesByCode("BY")).thenReturn(Optional.of(belarus));
+        doAnswer(invocation -> {
+            assertEquals(0, remoteVersions.country("BY"));
+            return null;
+        }).when(remoteSnapshots).replaceCountry(belarus);
+
+        local.changed(1L, "BY");
+
+        InOrder order = inOrder(remoteSnapshots, remoteCache);
+        order.verify(remoteSnapshots).replaceCountry(belarus);
+        order.verify(remoteCache).remove(1L);
+        assertEquals(1, remoteVersions.country("BY"));
+    }
+
+    @Test
+    void largeBatchShouldFallBackToFullPrefixInvalidation() {
+        when(countryRepository.findWithPrefixesByCode("BY")).thenReturn(Optional.empty());
+
+        local.changed(LongStream.rangeClosed(1, 10).boxed().toList(), List.of("BY"));
+
+        assertTrue(published.get(0).allPrefixes());
+        assertTrue(published.get(0).prefixIds().isEmpty());
+        verify(remoteCache).clear();
+        verify(remoteResolver).load();
+        verify(remoteLookupIndex).load();
+        verify(remoteSnapshots).load();
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization
+                : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
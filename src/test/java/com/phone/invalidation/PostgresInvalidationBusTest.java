@@ -0,0 +1,22 @@
+package com.phone.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostgresInvalidationBusTest {
+
+    @Test
+    void constructorShouldRejectChannelsThatAreNotPlainIdentifiers() {
+        for (String channel : new String[] {"Prefixes", "a; DROP TABLE prefixes", "1abc", ""}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new PostgresInvalidationBus(null, null, null, channel), channel);
+        }
+    }
+
+    @Test
+    void constructorShouldAcceptLowerCaseIdentifier() {
+        assertDoesNotThrow(() -> new PostgresInvalidationBus(null, null, null,
+                "prefix_cache_invalidation_2"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.phone.metrics;
+
+import com.phone.dto.LatencyStatsResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsShouldCoverValuesWithinRelativeError() {
+        for (long value = 1; value < 1L << 40; value = value * 3 + 1) {
+            long upper = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(value));
+            assertTrue(upper >= value, "upper bound below value " + value);
+            assertTrue(upper <= value * 1.07, "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void snapshotShouldReportPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        LatencyStatsResponse stats = histogram.snapshot();
+
+        assertEquals(1000, stats.getCount());
+        assertEquals(500, stats.getP50Micros(), 500 * 0.07);
+        assertEquals(990, stats.getP99Micros(), 990 * 0.07);
+        assertEquals(1000, stats.getMaxMicros(), 0.1);
+    }
+
+    @Test
+    void resetShouldClearCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+}
@@ -0,0 +1,82 @@
+package com.phone.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Meter meter = new Meter(clock::get);
+
+    @Test
+    void markShouldCountEvents() {
+        meter.mark();
+        meter.mark();
+
+        assertEquals(2, meter.count());
+    }
+
+    @Test
+    void ratesShouldTrackSteadyLoad() {
+        for (int second = 0; second < 15 * 60; second++) {
+            for (int i = 0; i < 10; i++) {
+                meter.mark();
+            }
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertEquals(10, meter.oneMinuteRate(), 0.5);
+        assertEquals(10, meter.fiveMinuteRate(), 0.5);
+        assertTrue(meter.fifteenMinuteRate() > 5);
+    }
+
+    @Test
+    void ratesShouldDecayWhenIdle() {
+        for (int i = 0; i < 600; i++) {
+            meter.mark();
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        double initial = meter.oneMinuteRate();
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        assertTrue(meter.oneMinuteRate() < initial / 50);
+        assertEquals(600, meter.count());
+    }
+
+    @Test
+    void ratesShouldCoverOnlyTheirWindow() {
+        for (int i = 0; i < 600; i++) {
+            meter.mark();
+        }
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(0, meter.oneMinuteRate());
+        assertEquals(2, meter.fiveMinuteRate(), 1e-9);
+    }
+
+    @Test
+    void longIdleShouldClearRatesInBoundedSteps() {
+        meter.mark();
+        clock.addAndGet(TimeUnit.DAYS.toNanos(365_000));
+
+        assertTimeout(Duration.ofSeconds(1),
+                () -> assertEquals(0, meter.fifteenMinuteRate()));
+        assertEquals(1, meter.count());
+    }
+
+    @Test
+    void resetShouldClearCountAndRates() {
+        meter.mark();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        meter.reset();
+
+        assertEquals(0, meter.count());
+        assertEquals(0, meter.oneMinuteRate());
+    }
+}
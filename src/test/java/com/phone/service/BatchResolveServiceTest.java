@@ -0,0 +1,79 @@
+package com.phone.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phone.index.PrefixResolver;
+import com.phone.model.Country;
+import com.phone.model.PhoneNumberPrefix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchResolveServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchResolveService service;
+
+    @BeforeEach
+    void setUp() {
+        PrefixResolver resolver = new PrefixResolver(null, null);
+        Country belarus = new Country("BY", "Belarus", "+375", new ArrayList<>());
+        resolver.rebuild(List.of(belarus),
+                List.of(new PhoneNumberPrefix(1L, "29", "Velcom", belarus)));
+        service = new BatchResolveService(resolver, objectMapper, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void resolveAllShouldKeepInputOrderForJsonArray() throws Exception {
+        String body = "[\"+375 29 1234567\", \"12x\", \"999\", null, \"375441112233\"]";
+
+        JsonNode result = objectMapper.readTree(
+                resolve(body, BatchResolveService.Format.JSON));
+
+        assertEquals(5, result.size());
+        assertEquals("Velcom", result.get(0).get("regionName").asText());
+        assertEquals("12x", result.get(1).get("number").asText());
+        assertTrue(result.get(1).get("countryCode").isNull());
+        assertTrue(result.get(2).get("countryCode").isNull());
+        assertTrue(result.get(3).get("number").isNull());
+        assertEquals("BY", result.get(4).get("countryCode").asText());
+        assertTrue(result.get(4).get("prefixId").isNull());
+    }
+
+    @Test
+    void resolveAllShouldWriteOneLinePerNumberForNdjson() throws Exception {
+        String body = "\"+375291112233\"\n\n375447778899\nabc\n";
+
+        String[] lines = resolve(body, BatchResolveService.Format.NDJSON).split("\n");
+
+        assertEquals(3, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("prefixId").asLong());
+        assertEquals("BY", objectMapper.readTree(lines[1]).get("countryCode").asText());
+        assertEquals("abc", objectMapper.readTree(lines[2]).get("number").asText());
+    }
+
+    @Test
+    void resolveAllShouldRejectNonArrayJson() {
+        assertThrows(IllegalArgumentException.class,
+                () -> resolve("{\"number\":\"1\"}", BatchResolveService.Format.JSON));
+    }
+
+    private String resolve(String body, BatchResolveService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.resolveAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out,
+                format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
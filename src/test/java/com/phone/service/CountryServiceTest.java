@@ -1,9 +1,17 @@
 package com.phone.service;
 
 import com.phone.cache.PrefixCache;
+import com.phone.dto.CountryBulkResponse;
 import com.phone.dto.CountryDtoRequest;
 import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PageDtoResponse;
+import com.phone.dto.PrefixDtoResponse;
 import com.phone.exception.NotFoundException;
+import com.phone.index.CountryLookupIndex;
+import com.phone.index.CountrySuggestIndex;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
 import com.phone.mapper.CountryMapper;
 import com.phone.model.Country;
 import com.phone.model.PhoneNumberPrefix;
@@ -12,15 +20,23 @@ import com.phone.repository.PhoneNumberPrefixRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Limit;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class CountryServiceTest {
 
+    @Mock
+    private DatasetSnapshotStore snapshots;
+
+    @Mock
+    private CountrySuggestIndex suggestIndex;
+
     @InjectMocks
     private CountryService countryService;
 
@@ -36,6 +52,15 @@ class CountryServiceTest {
     @Mock
     private PrefixCache prefixCache;
 
+    @Mock
+    private PrefixResolver resolver;
+
+    @Mock
+    private CountryLookupIndex lookupIndex;
+
+    @Mock
+    private CacheInvalidator invalidator;
+
     @Mock
     private CountryDtoRequest request;
 
@@ -52,7 +77,7 @@ class CountryServiceTest {
 
     @Test
     void getAllShouldReturnList() {
-        when(countryRepository.findAll()).thenReturn(List.of(country));
+        when(countryRepository.findAllWithPrefixes()).thenReturn(List.of(country));
         when(countryMapper.toDto(country)).thenReturn(response);
 
         List<CountryDtoResponse> result = countryService.getAll();
@@ -84,7 +109,7 @@ class CountryServiceTest {
 
     @Test
     void getByCodeShouldReturnCountry() {
-        when(countryRepository.findById("US")).thenReturn(Optional.of(country));
+        when(countryRepository.findWithPrefixesByCode("US")).thenReturn(Optional.of(country));
         when(countryMapper.toDto(country)).thenReturn(response);
 
         CountryDtoResponse result = countryService.getByCode("US");
@@ -94,14 +119,14 @@ class CountryServiceTest {
 
     @Test
     void getByCodeShouldThrowWhenNotFound() {
-        when(countryRepository.findById("US")).thenReturn(Optional.empty());
+        when(countryRepository.findWithPrefixesByCode("US")).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> countryService.getByCode("US"));
     }
 
     @Test
     void updateShouldUpdateCountry() {
-        when(countryRepository.findById("US")).thenReturn(Optional.of(country));
+        when(countryRepository.findWithPrefixesByCode("US")).thenReturn(Optional.of(country));
         when(countryRepository.save(country)).thenReturn(country);
         when(countryMapper.toDto(country)).thenReturn(response);
 
@@ -112,74 +137,63 @@ class CountryServiceTest {
 
     @Test
     void updateShouldThrowWhenNotFound() {
-        when(countryRepository.findById("US")).thenReturn(Optional.empty());
+        when(countryRepository.findWithPrefixesByCode("US")).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> countryService.update("US", request));
     }
 
     @Test
-    void lookupShouldReturnCountryWhenMatchedByCode() {
-        when(country.getCode()).thenReturn("DE");
-        when(countryRepository.findAll()).thenReturn(List.of(country));
+    void lookupShouldReturnCountryFromIndex() {
+        when(lookupIndex.find("de")).thenReturn(Optional.of("DE"));
+        when(countryRepository.findWithPrefixesByCode("DE")).thenReturn(Optional.of(country));
         when(countryMapper.toDto(country)).thenReturn(response);
 
         CountryDtoResponse result = countryService.lookup("de");
 
         assertEquals(response, result);
+        verify(countryRepository, never()).findAll();
     }
 
     @Test
-    void lookupShouldReturnCountryWhenMatchedByName() {
-        when(country.getCode()).thenReturn("ZZ");
-        when(country.getName()).thenReturn("Germany");
-        when(country.getPhoneCode()).thenReturn("000");
-        when(countryRepository.findAll()).thenReturn(List.of(country));
-        when(countryMapper.toDto(country)).thenReturn(response);
-
-        CountryDtoResponse result = countryService.lookup("GERMANY");
-
-        assertEquals(response, result);
-    }
-
-    @Test
-    void lookupShouldReturnCountryWhenMatchedByPhoneCode() {
-        when(country.getCode()).thenReturn("ZZ");
-        when(country.getName()).thenReturn("Unknown");
-        when(country.getPhoneCode()).thenReturn("+49");
-        when(countryRepository.findAll()).thenReturn(List.of(country));
+    void lookupShouldFallBackToDatabaseAndIndexResult() {
+        when(lookupIndex.find("+49")).thenReturn(Optional.empty());
+        when(countryRepository.findByLookupValue("+49", Limit.of(1))).thenReturn(List.of(country));
         when(countryMapper.toDto(country)).thenReturn(response);
 
         CountryDtoResponse result = countryService.lookup("+49");
 
         assertEquals(response, result);
+        verify(lookupIndex).put(country);
     }
 
     @Test
     void deleteShouldRemoveCountryAndCache() {
-        PhoneNumberPrefix prefix = mock(PhoneNumberPrefix.class);
-        when(prefix.getId()).thenReturn(1L);
-        when(prefixRepository.findByCountryCode("US")).thenReturn(List.of(prefix));
+        when(countryRepository.deleteWithPrefixes("US")).thenReturn(1);
 
         countryService.delete("US");
 
-        verify(countryRepository).deleteById("US");
-        verify(prefixCache).remove(1L);
+        verify(countryRepository).deleteWithPrefixes("US");
+        verify(prefixRepository, never()).findByCountryCode(any());
+        verify(prefixCache).removeCountry("US");
+        verify(resolver).removeCountry("US");
+        verify(lookupIndex).remove("US");
+        verify(snapshots).removeCountry("US");
+        verify(invalidator).changed("US");
     }
 
     @Test
-    void lookupShouldReturnCountryWhenMatched() {
-        when(country.getCode()).thenReturn("US");
-        when(countryRepository.findAll()).thenReturn(List.of(country));
-        when(countryMapper.toDto(country)).thenReturn(response);
+    void deleteOfMissingCountryShouldDoNothingElse() {
+        when(countryRepository.deleteWithPrefixes("ZZ")).thenReturn(0);
 
-        CountryDtoResponse result = countryService.lookup("US");
+        countryService.delete("ZZ");
 
-        assertEquals(response, result);
+        verifyNoInteractions(prefixCache, resolver, invalidator);
     }
 
     @Test
     void lookupShouldReturnNullWhenNoMatch() {
-        when(countryRepository.findAll()).thenReturn(Collections.emptyList());
+        when(lookupIndex.find("ZZ")).thenReturn(Optional.empty());
+        when(countryRepository.findByLookupValue("ZZ", Limit.of(1))).thenReturn(Collections.emptyList());
 
         CountryDtoResponse result = countryService.lookup("ZZ");
 
@@ -187,27 +201,54 @@ class CountryServiceTest {
     }
 
     @Test
-    void saveAllShouldSaveCountries() {
+    void saveAllShouldInsertInBulk() {
         List<CountryDtoRequest> requests = List.of(request);
 
         when(request.getCode()).thenReturn("US");
-        when(countryRepository.existsById("US")).thenReturn(false);
+        when(countryRepository.findExistingCodes(Set.of("US"))).thenReturn(Set.of());
         when(countryMapper.toEntity(request)).thenReturn(country);
-        when(countryRepository.save(country)).thenReturn(country);
+        when(countryRepository.insertAll(List.of(country))).thenReturn(1);
         when(countryMapper.toDto(country)).thenReturn(response);
 
-        List<CountryDtoResponse> results = countryService.saveAll(requests);
+        CountryBulkResponse result = countryService.saveAll(requests);
 
-        assertEquals(1, results.size());
-        assertEquals(response, results.get(0));
+        assertEquals(1, result.getInserted());
+        assertEquals(List.of(response), result.getItems());
+        verify(countryRepository, never()).existsById(any());
+        verify(countryRepository, never()).save(any());
     }
 
     @Test
     void saveAllShouldThrowWhenCountryExists() {
         when(request.getCode()).thenReturn("US");
-        when(countryRepository.existsById("US")).thenReturn(true);
+        when(countryRepository.findExistingCodes(Set.of("US"))).thenReturn(Set.of("US"));
         List<CountryDtoRequest> requests = List.of(request);
 
         assertThrows(IllegalArgumentException.class, () -> countryService.saveAll(requests));
+        verify(countryRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void saveAllShouldThrowOnDuplicateCodesInRequest() {
+        when(request.getCode()).thenReturn("US");
+        when(countryRepository.findExistingCodes(Set.of("US"))).thenReturn(Set.of());
+        List<CountryDtoRequest> requests = List.of(request, request);
+
+        assertThrows(IllegalArgumentException.class, () -> countryService.saveAll(requests));
+        verify(countryRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void getPageShouldAttachPrefixesWithSingleQuery() {
+        PrefixDtoResponse prefix = new PrefixDtoResponse(1L, "29", "Velcom", "BY");
+        when(country.getCode()).thenReturn("BY");
+        when(countryRepository.findPageAfter("", Limit.of(11))).thenReturn(List.of(country));
+        when(prefixRepository.findDtosByCountryCodeIn(List.of("BY"))).thenReturn(List.of(prefix));
+        when(countryMapper.toDto(country, List.of(prefix))).thenReturn(response);
+
+        PageDtoResponse<CountryDtoResponse> page = countryService.getPage(null, 10);
+
+        assertEquals(List.of(response), page.getItems());
+        assertNull(page.getNext());
     }
 }
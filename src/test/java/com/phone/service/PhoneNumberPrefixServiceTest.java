@@ -1,15 +1,26 @@
 package com.phone.service;
 
 import com.phone.cache.PrefixCache;
+import com.phone.dto.CountryDtoResponse;
+import com.phone.dto.PageDtoResponse;
 import com.phone.dto.PrefixDtoRequest;
 import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixUpsertResponse;
+import com.phone.dto.ResolveDtoResponse;
 import com.phone.exception.NotFoundException;
+import com.phone.index.DatasetSnapshot;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
 import com.phone.mapper.PrefixMapper;
+import com.phone.model.Country;
 import com.phone.model.PhoneNumberPrefix;
 import com.phone.repository.PhoneNumberPrefixRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +29,9 @@ import static org.mockito.Mockito.*;
 
 class PhoneNumberPrefixServiceTest {
 
+    @Mock
+    private DatasetSnapshotStore snapshots;
+
     @InjectMocks
     private PhoneNumberPrefixService service;
 
@@ -30,6 +44,12 @@ class PhoneNumberPrefixServiceTest {
     @Mock
     private PrefixCache cache;
 
+    @Mock
+    private PrefixResolver resolver;
+
+    @Mock
+    private CacheInvalidator invalidator;
+
     @Mock
     private PrefixDtoRequest request;
 
@@ -46,8 +66,7 @@ class PhoneNumberPrefixServiceTest {
 
     @Test
     void getAllShouldReturnList() {
-        when(repository.findAll()).thenReturn(List.of(entity));
-        when(mapper.toDto(entity)).thenReturn(response);
+        when(repository.findAllDtos()).thenReturn(List.of(response));
 
         List<PrefixDtoResponse> result = service.getAll();
 
@@ -77,6 +96,22 @@ class PhoneNumberPrefixServiceTest {
         verify(cache).put(1L, response);
     }
 
+    @Test
+    void readsShouldBeServedFromSnapshotWhenLoaded() {
+        CountryDtoResponse country = new CountryDtoResponse();
+        country.setCode("RU");
+        country.setName("Russia");
+        country.setPrefixes(List.of(new PrefixDtoResponse(1L, "495", "Moscow", "RU")));
+        when(snapshots.current()).thenReturn(Optional.of(DatasetSnapshot.of(List.of(country))));
+
+        assertEquals("495", service.getById(1L).getPrefix());
+        assertEquals(1, service.getByCountryName("Russia").size());
+        assertEquals(1, service.getAll().size());
+        assertThrows(NotFoundException.class, () -> service.getById(2L));
+        verify(cache).put(1L, new PrefixDtoResponse(1L, "495", "Moscow", "RU"));
+        verifyNoInteractions(repository);
+    }
+
     @Test
     void getByIdShouldThrowIfInvalidId() {
         assertThrows(IllegalArgumentException.class, () -> service.getById(-1L));
@@ -93,7 +128,7 @@ class PhoneNumberPrefixServiceTest {
     @Test
     void updateShouldUpdateEntity() {
         when(repository.findById(1L)).thenReturn(Optional.of(entity));
-        when(repository.save(entity)).thenReturn(entity);
+        when(repository.saveAndFlush(entity)).thenReturn(entity);
         when(mapper.toDto(entity)).thenReturn(response);
 
         PrefixDtoResponse result = service.update(1L, request);
@@ -102,6 +137,18 @@ class PhoneNumberPrefixServiceTest {
         verify(cache).put(1L, response);
     }
 
+    @Test
+    void updateShouldReportExistingPair() {
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        when(entity.getCountry()).thenReturn(new Country("BY", "Belarus", "+375", null));
+        when(request.getPrefix()).thenReturn("29");
+        when(repository.saveAndFlush(entity))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.update(1L, request));
+        verifyNoInteractions(cache, resolver, invalidator);
+    }
+
     @Test
     void updateShouldThrowIfInvalidId() {
         assertThrows(IllegalArgumentException.class, () -> service.update(-1L, request));
@@ -115,12 +162,15 @@ class PhoneNumberPrefixServiceTest {
 
     @Test
     void deleteShouldDeleteAndRemoveFromCache() {
-        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        when(entity.getCountry()).thenReturn(new Country("BY", "Belarus", "+375", null));
 
         service.delete(1L);
 
-        verify(repository).deleteById(1L);
+        verify(repository).delete(entity);
         verify(cache).remove(1L);
+        verify(resolver).removePrefix(1L);
+        verify(invalidator).changed(1L, "BY");
     }
 
     @Test
@@ -130,14 +180,13 @@ class PhoneNumberPrefixServiceTest {
 
     @Test
     void deleteShouldThrowIfNotFound() {
-        when(repository.existsById(1L)).thenReturn(false);
+        when(repository.findById(1L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> service.delete(1L));
     }
 
     @Test
     void getByCountryShouldReturnList() {
-        when(repository.findByCountryCode("RU")).thenReturn(List.of(entity));
-        when(mapper.toDto(entity)).thenReturn(response);
+        when(repository.findDtosByCountryCode("RU")).thenReturn(List.of(response));
 
         List<PrefixDtoResponse> result = service.getByCountry("RU");
 
@@ -147,8 +196,7 @@ class PhoneNumberPrefixServiceTest {
 
     @Test
     void getByCountryNameShouldReturnList() {
-        when(repository.findByCountryName("Russia")).thenReturn(List.of(entity));
-        when(mapper.toDto(entity)).thenReturn(response);
+        when(repository.findDtosByCountryName("Russia")).thenReturn(List.of(response));
 
         List<PrefixDtoResponse> result = service.getByCountryName("Russia");
 
@@ -168,6 +216,7 @@ class PhoneNumberPrefixServiceTest {
         PrefixDtoResponse result = service.save(request);
 
         assertEquals(response, result);
+        verify(resolver).putPrefix(entity);
     }
 
     @Test
@@ -177,4 +226,90 @@ class PhoneNumberPrefixServiceTest {
         when(repository.existsByPrefixAndCountryCode("495", "RU")).thenReturn(true);
         assertThrows(IllegalArgumentException.class, () -> service.save(request));
     }
+
+    @Test
+    void saveShouldReportDuplicateInsertedConcurrently() {
+        when(request.getPrefix()).thenReturn("495");
+        when(request.getCountryCode()).thenReturn("RU");
+        when(mapper.toEntity(request)).thenReturn(entity);
+        when(repository.save(entity)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.save(request));
+        verifyNoInteractions(resolver, invalidator);
+    }
+
+    @Test
+    void upsertAllShouldWriteOnceAndKeepRequestOrder() {
+        PrefixDtoRequest first = prefixRequest("29", "Old", "BY");
+        PrefixDtoRequest second = prefixRequest("495", "Moscow", "RU");
+        PrefixDtoRequest firstAgain = prefixRequest("29", "A1", "BY");
+        when(repository.upsertAll(anyCollection())).thenReturn(List.of(
+                new PrefixUpsertResponse(2L, "495", "Moscow", "RU",
+                        PrefixUpsertResponse.Status.CREATED),
+                new PrefixUpsertResponse(1L, "29", "A1", "BY",
+                        PrefixUpsertResponse.Status.UPDATED)));
+
+        List<PrefixUpsertResponse> result = service.upsertAll(List.of(first, second, firstAgain));
+
+        verify(repository).upsertAll(argThat(rows ->
+                List.copyOf(rows).equals(List.of(firstAgain, second))));
+        assertEquals(List.of(1L, 2L), result.stream().map(PrefixUpsertResponse::getId).toList());
+        assertEquals(PrefixUpsertResponse.Status.UPDATED, result.get(0).getStatus());
+        verify(resolver).putPrefix(1L, "29", "A1", "BY");
+        verify(resolver).putPrefix(2L, "495", "Moscow", "RU");
+        verify(cache).put(1L, new PrefixDtoResponse(1L, "29", "A1", "BY"));
+        verify(invalidator).changed(List.of(1L, 2L), List.of("BY", "RU"));
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void upsertShouldThrowForUnknownCountry() {
+        when(repository.upsertAll(anyCollection())).thenReturn(List.of());
+
+        NotFoundException error = assertThrows(NotFoundException.class,
+                () -> service.upsert(prefixRequest("29", "A1", "ZZ")));
+
+        assertEquals("Country with code 'ZZ' not found", error.getMessage());
+        verifyNoInteractions(resolver, invalidator, snapshots);
+    }
+
+    private static PrefixDtoRequest prefixRequest(String prefix, String region, String code) {
+        PrefixDtoRequest request = new PrefixDtoRequest();
+        request.setPrefix(prefix);
+        request.setRegionName(region);
+        request.setCountryCode(code);
+        return request;
+    }
+
+    @Test
+    void resolveShouldReturnMatch() {
+        ResolveDtoResponse resolved = new ResolveDtoResponse();
+        when(resolver.resolve("375291234567")).thenReturn(Optional.of(resolved));
+
+        assertEquals(resolved, service.resolve("375291234567"));
+    }
+
+    @Test
+    void resolveShouldThrowIfNoMatch() {
+        when(resolver.resolve("999")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> service.resolve("999"));
+    }
+
+    @Test
+    void getPageShouldReturnNextCursorWhenMoreRowsExist() {
+        PrefixDtoResponse first = new PrefixDtoResponse(5L, "29", "Velcom", "BY");
+        PrefixDtoResponse second = new PrefixDtoResponse(7L, "33", "MTS", "BY");
+        when(repository.findDtosAfter(4L, Limit.of(2))).thenReturn(List.of(first, second));
+
+        PageDtoResponse<PrefixDtoResponse> page = service.getPage(4L, 1);
+
+        assertEquals(List.of(first), page.getItems());
+        assertEquals("5", page.getNext());
+    }
+
+    @Test
+    void getPageShouldRejectInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, 0));
+    }
 }
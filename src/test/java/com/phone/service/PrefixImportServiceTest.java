@@ -0,0 +1,143 @@
+package com.phone.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phone.dto.PrefixDtoRequest;
+import com.phone.dto.PrefixDtoResponse;
+import com.phone.dto.PrefixImportResponse;
+import com.phone.index.DatasetSnapshotStore;
+import com.phone.index.PrefixResolver;
+import com.phone.invalidation.CacheInvalidator;
+import com.phone.model.Country;
+import com.phone.repository.CountryRepository;
+import com.phone.repository.PhoneNumberPrefixRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrefixImportServiceTest {
+
+    @Mock
+    private PhoneNumberPrefixRepository prefixRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private PrefixResolver resolver;
+
+    @Mock
+    private CacheInvalidator invalidator;
+
+    @Mock
+    private DatasetSnapshotStore snapshots;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PrefixImportService service;
+
+    private final List<PrefixDtoResponse> inserted = new ArrayList<>();
+
+    private final Set<String> stored = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        service = new PrefixImportService(prefixRepository, countryRepository, resolver,
+                invalidator, snapshots, transactionTemplate, new ObjectMapper(), validator, 2);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+        when(countryRepository.findAllById(any()))
+                .thenReturn(List.of(new Country("BY", "Belarus", "+375", null)));
+        when(prefixRepository.insertMissing(any())).thenAnswer(invocation -> {
+            List<PrefixDtoResponse> rows = new ArrayList<>();
+            for (PrefixDtoRequest request : invocation.<Collection<PrefixDtoRequest>>getArgument(0)) {
+                if (stored.add(request.getCountryCode() + ':' + request.getPrefix())) {
+                    rows.add(new PrefixDtoResponse((long) stored.size(), request.getPrefix(),
+                            request.getRegionName(), request.getCountryCode()));
+                }
+            }
+            inserted.addAll(rows);
+            return rows;
+        });
+    }
+
+    @Test
+    void importCsvShouldSkipDuplicatesAndRejectInvalidRows() throws Exception {
+        stored.add("BY:44");
+        String csv = "prefix,region_name,country_code\n"
+                + "29,Velcom,BY\n"
+                + "44,Life,BY\n"
+                + "29,Velcom,BY\n"
+                + "33,\"MTS, Minsk\",BY\n"
+                + "1,Unknown,ZZ\n"
+                + ",Empty,BY\n";
+
+        PrefixImportResponse result = service.importPrefixes(stream(csv),
+                PrefixImportService.Format.CSV);
+
+        assertEquals(6, result.getProcessed());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getSkipped());
+        assertEquals(2, result.getRejected());
+        assertEquals("MTS, Minsk", inserted.get(1).getRegionName());
+        verify(countryRepository, times(2)).findAllById(any());
+        verify(resolver, times(2)).putPrefix(anyLong(), anyString(), anyString(), eq("BY"));
+        verify(invalidator, times(2)).changed(anyList(), eq(Set.of("BY")));
+    }
+
+    @Test
+    void importNdjsonShouldRejectMalformedLines() throws Exception {
+        String ndjson = "{\"prefix\":\"29\",\"regionName\":\"Velcom\",\"countryCode\":\"BY\"}\n"
+                + "not json\n";
+
+        PrefixImportResponse result = service.importPrefixes(stream(ndjson),
+                PrefixImportService.Format.NDJSON);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+    }
+
+    @Test
+    void streamingImportShouldWriteProgressAfterEachChunk() throws Exception {
+        String csv = "29,Velcom,BY\n"
+                + "44,Life,BY\n"
+                + "33,MTS,BY\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.importPrefixes(stream(csv), PrefixImportService.Format.CSV, out);
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<PrefixImportResponse> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(mapper.readValue(line, PrefixImportResponse.class));
+        }
+        assertEquals(3, lines.size());
+        assertEquals(2, lines.get(0).getImported());
+        assertEquals(3, lines.get(1).getImported());
+        assertEquals(3, lines.get(2).getProcessed());
+        assertEquals(3, lines.get(2).getImported());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
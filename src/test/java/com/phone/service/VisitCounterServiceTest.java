@@ -0,0 +1,82 @@
+package com.phone.service;
+
+import com.phone.repository.VisitCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VisitCounterServiceTest {
+
+    @Mock
+    private VisitCounterRepository repository;
+
+    @InjectMocks
+    private VisitCounterService visitCounterService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void incrementShouldNotTouchDatabase() {
+        visitCounterService.increment("/countries");
+        visitCounterService.increment("/countries");
+
+        assertEquals(2L, visitCounterService.getCounter());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void flushShouldWriteDeltasOnce() {
+        visitCounterService.increment("/countries");
+        visitCounterService.increment("/countries");
+        visitCounterService.increment("/prefixes");
+
+        visitCounterService.flush();
+        visitCounterService.flush();
+
+        verify(repository, times(1)).addAll(Map.of("/countries", 2L, "/prefixes", 1L));
+    }
+
+    @Test
+    void failedFlushShouldKeepDeltas() {
+        visitCounterService.increment("/countries");
+        doThrow(new RuntimeException("down")).when(repository).addAll(anyMap());
+
+        visitCounterService.flush();
+        visitCounterService.increment("/countries");
+        reset(repository);
+        visitCounterService.flush();
+
+        verify(repository).addAll(Map.of("/countries", 2L));
+    }
+
+    @Test
+    void restoreShouldAddStoredTotals() {
+        when(repository.findAll()).thenReturn(Map.of("/countries", 40L));
+        visitCounterService.increment("/countries");
+
+        visitCounterService.restore();
+
+        assertEquals(41L, visitCounterService.getCountsByEndpoint().get("/countries"));
+        visitCounterService.flush();
+        verify(repository).addAll(Map.of("/countries", 1L));
+    }
+
+    @Test
+    void resetShouldClearStoredTotals() {
+        visitCounterService.increment("/countries");
+
+        visitCounterService.reset();
+        visitCounterService.flush();
+
+        assertEquals(0L, visitCounterService.getCounter());
+        verify(repository).deleteAll();
+        verify(repository, never()).addAll(anyMap());
+    }
+}